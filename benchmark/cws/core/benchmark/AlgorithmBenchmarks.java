@@ -0,0 +1,102 @@
+package cws.core.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import cws.core.algorithms.Algorithm;
+import cws.core.algorithms.Backtrack;
+import cws.core.algorithms.DPDS;
+import cws.core.algorithms.MinMin;
+import cws.core.algorithms.SPSS;
+import cws.core.algorithms.StaticAlgorithm;
+import cws.core.algorithms.StorageSimulationParams;
+import cws.core.algorithms.StorageType;
+import cws.core.algorithms.VMType;
+import cws.core.cloudsim.CloudSimWrapper;
+import cws.core.dag.DAG;
+import cws.core.dag.DAGParser;
+import cws.core.dag.DAGStats;
+import cws.core.provisioner.VMFactory;
+import cws.core.storage.VoidStorageManager;
+
+/**
+ * Planning of the static algorithms and end-to-end simulation of a dynamic one. Budget and deadline are twice the
+ * minimal cost and critical path of the ensemble, so all the DAGs are feasible.
+ */
+public class AlgorithmBenchmarks {
+
+    public static List<Benchmark> all() {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        benchmarks.add(plan("SPSS", "Montage_1000", 1));
+        benchmarks.add(plan("MinMin", "Montage_1000", 1));
+        benchmarks.add(plan("Backtrack", "Montage_25", 1));
+        benchmarks.add(simulate("DPDS", "Montage_1000", 4));
+        return benchmarks;
+    }
+
+    private abstract static class EnsembleBenchmark extends Benchmark {
+        protected final String dagName;
+        protected final int ensembleSize;
+        protected List<DAG> dags;
+        protected double budget;
+        protected double deadline;
+        protected StorageSimulationParams simulationParams;
+
+        public EnsembleBenchmark(String name, String dagName, int ensembleSize) {
+            super(name + " " + dagName + " x" + ensembleSize);
+            this.dagName = dagName;
+            this.ensembleSize = ensembleSize;
+        }
+
+        @Override
+        public void setUp() {
+            simulationParams = new StorageSimulationParams();
+            simulationParams.setStorageType(StorageType.VOID);
+            dags = new ArrayList<DAG>();
+            double minCost = 0.0;
+            double maxTime = 0.0;
+            for (int i = 0; i < ensembleSize; i++) {
+                DAG dag = DAGParser.parseDAG(new File("dags/" + dagName + ".dag"));
+                DAGStats stats = new DAGStats(dag, new VoidStorageManager(new CloudSimWrapper()));
+                minCost += stats.getMinCost();
+                maxTime = Math.max(maxTime, stats.getCriticalPath());
+                dags.add(dag);
+            }
+            budget = 2 * Math.ceil(minCost);
+            deadline = 2 * Math.ceil(maxTime);
+        }
+    }
+
+    private static Benchmark plan(final String algorithmName, String dagName, int ensembleSize) {
+        return new EnsembleBenchmark(algorithmName + ".plan", dagName, ensembleSize) {
+            @Override
+            public Object run() {
+                CloudSimWrapper cloudsim = new CloudSimWrapper();
+                StaticAlgorithm algorithm;
+                if ("SPSS".equals(algorithmName)) {
+                    algorithm = new SPSS(budget, deadline, dags, 0.7, cloudsim, simulationParams, new VMFactory());
+                } else if ("MinMin".equals(algorithmName)) {
+                    algorithm = new MinMin(budget, deadline, dags, cloudsim, simulationParams, new VMFactory());
+                } else {
+                    algorithm = new Backtrack(budget, deadline, dags, cloudsim, simulationParams, new VMFactory());
+                }
+                algorithm.setStorageManager(Algorithm.initializeStorage(simulationParams, cloudsim));
+                algorithm.plan();
+                return algorithm.getPlanCost();
+            }
+        };
+    }
+
+    private static Benchmark simulate(final String algorithmName, String dagName, int ensembleSize) {
+        return new EnsembleBenchmark(algorithmName + ".simulate", dagName, ensembleSize) {
+            @Override
+            public Object run() {
+                Algorithm algorithm = new DPDS(budget, deadline, dags, VMType.DEFAULT_VM_TYPE.getPrice(), 1.0,
+                        new CloudSimWrapper(), simulationParams, new VMFactory());
+                algorithm.simulate(algorithmName);
+                return algorithm.numCompletedDAGs();
+            }
+        };
+    }
+}
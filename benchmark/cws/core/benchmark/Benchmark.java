@@ -0,0 +1,26 @@
+package cws.core.benchmark;
+
+/**
+ * A single measured operation. {@link #setUp()} is called once before warmup, {@link #run()} is the measured operation.
+ * Whatever run() returns is consumed by the runner, so the JIT cannot drop the work as dead code.
+ */
+public abstract class Benchmark {
+    private final String name;
+
+    public Benchmark(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Prepares inputs that should not be measured. Does nothing by default.
+     */
+    public void setUp() {
+        // Do nothing by default
+    }
+
+    public abstract Object run();
+}
@@ -0,0 +1,128 @@
+package cws.core.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.cli.PosixParser;
+
+import cws.core.cloudsim.CloudSimWrapper;
+
+/**
+ * Runs the simulator benchmarks. Every benchmark is run for a number of warmup iterations, whose results are
+ * discarded, and then for a number of measured iterations. An iteration calls the benchmark repeatedly for at least
+ * the given time. Reported times are per call.
+ *
+ * Usage: ant benchmark -Dbenchmark.args="-b parseDAG -i 10"
+ */
+public class BenchmarkRunner {
+    private static final String DEFAULT_WARMUP_ITERATIONS = "3";
+    private static final String DEFAULT_ITERATIONS = "5";
+    private static final String DEFAULT_ITERATION_TIME = "1.0";
+
+    /** Consumes benchmark results so they are never dead code */
+    private static int sink;
+
+    public static Options buildOptions() {
+        Options options = new Options();
+
+        Option filter = new Option("b", "benchmark", true, "Only run benchmarks whose name contains the given text");
+        filter.setArgName("TEXT");
+        options.addOption(filter);
+
+        Option warmup = new Option("wi", "warmup-iterations", true, "Warmup iterations, defaults to "
+                + DEFAULT_WARMUP_ITERATIONS);
+        warmup.setArgName("N");
+        options.addOption(warmup);
+
+        Option iterations = new Option("i", "iterations", true, "Measured iterations, defaults to "
+                + DEFAULT_ITERATIONS);
+        iterations.setArgName("N");
+        options.addOption(iterations);
+
+        Option time = new Option("it", "iteration-time", true, "Minimal iteration time in seconds, defaults to "
+                + DEFAULT_ITERATION_TIME);
+        time.setArgName("SEC");
+        options.addOption(time);
+
+        return options;
+    }
+
+    public static List<Benchmark> allBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        benchmarks.addAll(DAGBenchmarks.all());
+        benchmarks.addAll(TransferBenchmarks.all());
+        benchmarks.addAll(AlgorithmBenchmarks.all());
+        benchmarks.addAll(EventQueueBenchmarks.all());
+        return benchmarks;
+    }
+
+    public static void main(String[] args) {
+        Options options = buildOptions();
+        CommandLine cmd = null;
+        try {
+            cmd = new PosixParser().parse(options, args);
+        } catch (ParseException exp) {
+            System.err.println(exp.getMessage());
+            new HelpFormatter().printHelp(BenchmarkRunner.class.getName(), options);
+            System.exit(1);
+        }
+
+        String filter = cmd.getOptionValue("benchmark", "");
+        int warmupIterations = Integer.parseInt(cmd.getOptionValue("warmup-iterations", DEFAULT_WARMUP_ITERATIONS));
+        int iterations = Integer.parseInt(cmd.getOptionValue("iterations", DEFAULT_ITERATIONS));
+        double iterationTime = Double.parseDouble(cmd.getOptionValue("iteration-time", DEFAULT_ITERATION_TIME));
+
+        new CloudSimWrapper().disableLogging();
+
+        System.out.printf("%-50s %10s %14s %14s %14s\n", "benchmark", "calls", "mean ms/op", "min ms/op",
+                "max ms/op");
+        for (Benchmark benchmark : allBenchmarks()) {
+            if (benchmark.getName().contains(filter)) {
+                run(benchmark, warmupIterations, iterations, (long) (iterationTime * 1e9));
+            }
+        }
+    }
+
+    private static void run(Benchmark benchmark, int warmupIterations, int iterations, long iterationNanos) {
+        benchmark.setUp();
+        for (int i = 0; i < warmupIterations; i++) {
+            iterate(benchmark, iterationNanos);
+        }
+        long calls = 0;
+        double totalNanos = 0.0;
+        double min = Double.MAX_VALUE;
+        double max = 0.0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            long n = iterate(benchmark, iterationNanos);
+            long elapsed = System.nanoTime() - start;
+            double perCall = (double) elapsed / n;
+            min = Math.min(min, perCall);
+            max = Math.max(max, perCall);
+            calls += n;
+            totalNanos += elapsed;
+        }
+        System.out.printf("%-50s %10d %14.4f %14.4f %14.4f\n", benchmark.getName(), calls, totalNanos / calls / 1e6,
+                min / 1e6, max / 1e6);
+    }
+
+    /**
+     * Calls the benchmark until the given time has passed.
+     * @return Number of calls.
+     */
+    private static long iterate(Benchmark benchmark, long iterationNanos) {
+        long start = System.nanoTime();
+        long calls = 0;
+        do {
+            Object result = benchmark.run();
+            sink += System.identityHashCode(result);
+            calls++;
+        } while (System.nanoTime() - start < iterationNanos);
+        return calls;
+    }
+}
@@ -0,0 +1,111 @@
+package cws.core.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import cws.core.cloudsim.CloudSimWrapper;
+import cws.core.dag.BinaryDAGFormat;
+import cws.core.dag.DAG;
+import cws.core.dag.DAGConverter;
+import cws.core.dag.DAGParser;
+import cws.core.dag.algorithms.CriticalPath;
+import cws.core.dag.algorithms.TopologicalOrder;
+import cws.core.storage.StorageManager;
+import cws.core.storage.VoidStorageManager;
+
+/**
+ * Parsing and analysis of the bundled DAGs.
+ */
+public class DAGBenchmarks {
+
+    public static List<Benchmark> all() {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        benchmarks.add(parseDAG("Montage_1000"));
+        benchmarks.add(parseDAG("CyberShake_1000"));
+        benchmarks.add(parseDAG("Inspiral_1000"));
+        benchmarks.add(parseDAG("GENOME.n.1000.0"));
+        benchmarks.add(parseDAG("Sipht_1000"));
+        benchmarks.add(parseDAX("Montage_25"));
+        benchmarks.add(parseBinaryDAG("Montage_1000"));
+        benchmarks.add(parseBinaryDAG("CyberShake_1000"));
+        benchmarks.add(topologicalOrder("Montage_1000"));
+        benchmarks.add(criticalPath("Montage_1000"));
+        return benchmarks;
+    }
+
+    private static Benchmark parseDAG(final String name) {
+        return new Benchmark("DAGParser.parseDAG " + name) {
+            @Override
+            public Object run() {
+                return DAGParser.parseDAG(new File("dags/" + name + ".dag"));
+            }
+        };
+    }
+
+    private static Benchmark parseDAX(final String name) {
+        return new Benchmark("DAGParser.parseDAX " + name) {
+            @Override
+            public Object run() {
+                return DAGParser.parseDAX(new File("dags/" + name + ".xml"));
+            }
+        };
+    }
+
+    private static Benchmark parseBinaryDAG(final String name) {
+        return new Benchmark("DAGParser.parseBinaryDAG " + name) {
+            private File bdag;
+
+            @Override
+            public void setUp() {
+                try {
+                    bdag = File.createTempFile(name, BinaryDAGFormat.EXTENSION);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+                bdag.deleteOnExit();
+                DAGConverter.convert(new File("dags/" + name + ".dag"), bdag);
+            }
+
+            @Override
+            public Object run() {
+                return DAGParser.parseBinaryDAG(bdag);
+            }
+        };
+    }
+
+    private static Benchmark topologicalOrder(final String name) {
+        return new Benchmark("TopologicalOrder " + name) {
+            private DAG dag;
+
+            @Override
+            public void setUp() {
+                dag = DAGParser.parseDAG(new File("dags/" + name + ".dag"));
+            }
+
+            @Override
+            public Object run() {
+                return new TopologicalOrder(dag);
+            }
+        };
+    }
+
+    private static Benchmark criticalPath(final String name) {
+        return new Benchmark("CriticalPath " + name) {
+            private TopologicalOrder order;
+            private StorageManager storageManager;
+
+            @Override
+            public void setUp() {
+                order = new TopologicalOrder(DAGParser.parseDAG(new File("dags/" + name + ".dag")));
+                storageManager = new VoidStorageManager(new CloudSimWrapper());
+            }
+
+            @Override
+            public Object run() {
+                return new CriticalPath(order, storageManager).getCriticalPathLength();
+            }
+        };
+    }
+}
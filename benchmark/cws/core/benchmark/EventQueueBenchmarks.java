@@ -0,0 +1,120 @@
+package cws.core.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import cws.core.algorithms.Algorithm;
+import cws.core.algorithms.DPDS;
+import cws.core.algorithms.StorageSimulationParams;
+import cws.core.algorithms.StorageType;
+import cws.core.algorithms.VMType;
+import cws.core.cloudsim.CWSSimEntity;
+import cws.core.cloudsim.CWSSimEvent;
+import cws.core.cloudsim.CloudSimWrapper;
+import cws.core.cloudsim.EventQueueType;
+import cws.core.dag.DAG;
+import cws.core.dag.DAGParser;
+import cws.core.dag.DAGStats;
+import cws.core.provisioner.VMFactory;
+import cws.core.storage.VoidStorageManager;
+
+/**
+ * The simulation kernel with every {@link EventQueueType}: the hold model (every processed event schedules a new one)
+ * with the dense timestamps of the simulations, and an end-to-end DPDS simulation.
+ */
+public class EventQueueBenchmarks {
+    private static final int HOLD_EVENTS = 10000;
+    private static final int HOLD_HORIZON = 200000;
+
+    public static List<Benchmark> all() {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        for (EventQueueType type : EventQueueType.values()) {
+            benchmarks.add(hold(type));
+        }
+        for (EventQueueType type : EventQueueType.values()) {
+            benchmarks.add(simulate(type, "Montage_1000", 4));
+        }
+        return benchmarks;
+    }
+
+    /**
+     * Keeps a fixed number of events queued until the horizon. Half of the delays are zero and the rest are whole
+     * seconds, so many events share their time.
+     */
+    private static class HoldEntity extends CWSSimEntity {
+        private final Random rng = new Random(7);
+        private int remaining = HOLD_HORIZON;
+
+        public HoldEntity(CloudSimWrapper cloudsim) {
+            super("HoldEntity", cloudsim);
+        }
+
+        @Override
+        public void startEntity() {
+            for (int i = 0; i < HOLD_EVENTS; i++) {
+                hold();
+            }
+        }
+
+        @Override
+        public void processEvent(CWSSimEvent ev) {
+            if (remaining > 0) {
+                remaining--;
+                hold();
+            }
+        }
+
+        private void hold() {
+            double delay = rng.nextBoolean() ? 0.0 : 1 + rng.nextInt(100);
+            getCloudsim().sendToMyself(this, delay, 0, null);
+        }
+    }
+
+    private static Benchmark hold(final EventQueueType type) {
+        return new Benchmark("EventQueue.hold " + type + " " + HOLD_EVENTS) {
+            @Override
+            public Object run() {
+                CloudSimWrapper cloudsim = new CloudSimWrapper(type);
+                new HoldEntity(cloudsim);
+                return cloudsim.startSimulation();
+            }
+        };
+    }
+
+    private static Benchmark simulate(final EventQueueType type, final String dagName, final int ensembleSize) {
+        return new Benchmark("DPDS.simulate " + type + " " + dagName + " x" + ensembleSize) {
+            private List<DAG> dags;
+            private double budget;
+            private double deadline;
+            private StorageSimulationParams simulationParams;
+
+            @Override
+            public void setUp() {
+                simulationParams = new StorageSimulationParams();
+                simulationParams.setStorageType(StorageType.VOID);
+                dags = new ArrayList<DAG>();
+                double minCost = 0.0;
+                double maxTime = 0.0;
+                for (int i = 0; i < ensembleSize; i++) {
+                    DAG dag = DAGParser.parseDAG(new File("dags/" + dagName + ".dag"));
+                    DAGStats stats = new DAGStats(dag, new VoidStorageManager(new CloudSimWrapper()));
+                    minCost += stats.getMinCost();
+                    maxTime = Math.max(maxTime, stats.getCriticalPath());
+                    dags.add(dag);
+                }
+                budget = 2 * Math.ceil(minCost);
+                deadline = 2 * Math.ceil(maxTime);
+            }
+
+            @Override
+            public Object run() {
+                Algorithm algorithm = new DPDS(budget, deadline, dags, VMType.DEFAULT_VM_TYPE.getPrice(), 1.0,
+                        new CloudSimWrapper(type), simulationParams, new VMFactory());
+                algorithm.simulate("DPDS");
+                return algorithm.numCompletedDAGs();
+            }
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package cws.core.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import cws.core.cloudsim.CloudSimWrapper;
+import cws.core.transfer.BandwidthAllocator;
+import cws.core.transfer.Link;
+import cws.core.transfer.Port;
+import cws.core.transfer.Transfer;
+import cws.core.transfer.TransferManager;
+
+/**
+ * Bandwidth allocation of many concurrent transfers between a few shared ports.
+ */
+public class TransferBenchmarks {
+    private static final int NUM_PORTS = 50;
+
+    public static List<Benchmark> all() {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+        benchmarks.add(allocateBandwidth(1000));
+        benchmarks.add(incrementalAllocation(1000));
+        return benchmarks;
+    }
+
+    private static Transfer[] createTransfers(int numTransfers) {
+        CloudSimWrapper cloudsim = new CloudSimWrapper();
+        Random rng = new Random(7);
+        Port[] ports = new Port[NUM_PORTS];
+        for (int i = 0; i < ports.length; i++) {
+            ports[i] = new Port(100 + rng.nextInt(1000), cloudsim);
+        }
+        Link link = new Link(10000, 1.0, cloudsim);
+        Transfer[] transfers = new Transfer[numTransfers];
+        for (int i = 0; i < numTransfers; i++) {
+            transfers[i] = new Transfer(ports[rng.nextInt(ports.length)], ports[rng.nextInt(ports.length)], link,
+                    1000000, -1, cloudsim);
+        }
+        return transfers;
+    }
+
+    /** Full solve of all the transfers, as done for every transfer event before incremental allocation */
+    private static Benchmark allocateBandwidth(final int numTransfers) {
+        return new Benchmark("TransferManager.allocateBandwidth " + numTransfers) {
+            private Transfer[] transfers;
+
+            @Override
+            public void setUp() {
+                transfers = createTransfers(numTransfers);
+            }
+
+            @Override
+            public Object run() {
+                return TransferManager.allocateBandwidth(transfers);
+            }
+        };
+    }
+
+    /** One transfer leaving and joining again, as happens on transfer events */
+    private static Benchmark incrementalAllocation(final int numTransfers) {
+        return new Benchmark("BandwidthAllocator remove+add " + numTransfers) {
+            private Transfer[] transfers;
+            private BandwidthAllocator allocator;
+            private int next;
+
+            @Override
+            public void setUp() {
+                transfers = createTransfers(numTransfers);
+                allocator = new BandwidthAllocator();
+                for (Transfer t : transfers) {
+                    allocator.add(t);
+                }
+                allocator.allocate();
+            }
+
+            @Override
+            public Object run() {
+                Transfer t = transfers[next++ % transfers.length];
+                allocator.remove(t);
+                allocator.allocate();
+                allocator.add(t);
+                allocator.allocate();
+                return allocator.getAllocation(t);
+            }
+        };
+    }
+}
@@ -20,6 +20,9 @@ public class Cloud extends CWSSimEntity {
 
     private HashSet<VMListener> vmListeners = new HashSet<VMListener>();
 
+    /** Id of the StorageManager handed to launched VMs, resolved on the first launch */
+    private int storageManager = -1;
+
     public Cloud(CloudSimWrapper cloudsim) {
         super("Cloud", cloudsim);
         cloudsim.addEntity(this);
@@ -66,6 +69,10 @@ public class Cloud extends CWSSimEntity {
     private void launchVM(int owner, VM vm) {
         vm.setOwner(owner);
         vm.setCloud(getId());
+        if (storageManager == -1) {
+            storageManager = getCloudsim().getEntityId("StorageManager");
+        }
+        vm.setStorageManager(storageManager);
         vm.setLaunchTime(getCloudsim().clock());
         vms.add(vm);
 
@@ -4,8 +4,6 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Set;
 
-import org.cloudbus.cloudsim.core.predicates.Predicate;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 import cws.core.cloudsim.CWSSimEntity;
 import cws.core.cloudsim.CWSSimEvent;
@@ -15,6 +13,7 @@ import cws.core.jobs.IdentityRuntimeDistribution;
 import cws.core.jobs.Job;
 import cws.core.jobs.RuntimeDistribution;
 import cws.core.provisioner.VMFactory;
+import cws.core.storage.SynchronousStorageManager;
 import cws.core.storage.cache.VMCacheManager;
 
 /**
@@ -42,8 +41,6 @@ import cws.core.storage.cache.VMCacheManager;
  */
 public class VM extends CWSSimEntity {
 
-    private static int next_id = 0;
-
     /** How many seconds there are in one hour */
     public static final double SECONDS_PER_HOUR = 60 * 60;
 
@@ -56,6 +53,12 @@ public class VM extends CWSSimEntity {
     /** The Cloud that runs this VM */
     private int cloud;
 
+    /** The StorageManager that handles file transfers of jobs, -1 until resolved */
+    private int storageManager = -1;
+
+    /** The StorageManager if it is synchronous, its transfers are then done inline instead of by events */
+    private SynchronousStorageManager synchronousStorage;
+
     /**
      * The number of bytes on internal disk that can be used as a cache
      * @see {@link VMCacheManager}
@@ -96,7 +99,7 @@ public class VM extends CWSSimEntity {
     private FailureModel failureModel = new FailureModel(0, 0.0);
 
     public VM(VMStaticParams vmStaticParams, CloudSimWrapper cloudsim) {
-        super("VM" + (next_id++), cloudsim);
+        super("VM" + cloudsim.nextId(VM.class), cloudsim);
         this.vmStaticParams = vmStaticParams;
         this.jobs = new LinkedList<Job>();
         this.runningJobs = new HashSet<Job>();
@@ -180,6 +183,15 @@ public class VM extends CWSSimEntity {
         idleCores = vmStaticParams.getCores();
         cpuSecondsConsumed = 0.0;
 
+        // VMs launched without a Cloud have to find the storage manager themselves
+        if (storageManager == -1) {
+            storageManager = getCloudsim().getEntityId("StorageManager");
+        }
+        synchronousStorage = null;
+        if (storageManager >= 0 && getCloudsim().getEntity(storageManager) instanceof SynchronousStorageManager) {
+            synchronousStorage = (SynchronousStorageManager) getCloudsim().getEntity(storageManager);
+        }
+
         // VM can now accept jobs
         isRunning = true;
     }
@@ -189,8 +201,7 @@ public class VM extends CWSSimEntity {
         isRunning = false;
 
         // cancel future events
-        Predicate p = new PredicateType(WorkflowEvent.JOB_FINISHED);
-        getCloudsim().cancelAll(getId(), p);
+        getCloudsim().cancelAll(getId(), WorkflowEvent.JOB_FINISHED);
 
         // Move running jobs back to the queue...
         jobs.addAll(runningJobs);
@@ -200,7 +211,9 @@ public class VM extends CWSSimEntity {
         for (Job job : jobs) {
             job.setResult(Job.Result.FAILURE);
             getCloudsim().send(getId(), job.getOwner(), 0.0, WorkflowEvent.JOB_FINISHED, job);
-            getCloudsim().log("Terminating job " + job.getID() + " on VM " + job.getVM().getId());
+            if (getCloudsim().isLogEnabled()) {
+                getCloudsim().log("Terminating job " + job.getID() + " on VM " + job.getVM().getId());
+            }
         }
 
         // Reset dynamic state
@@ -243,8 +256,10 @@ public class VM extends CWSSimEntity {
             job.setResult(Job.Result.SUCCESS);
         }
 
-        getCloudsim().log(
-                "Starting computational part of job " + job.getTask().getId() + " on VM " + job.getVM().getId());
+        if (getCloudsim().isLogEnabled()) {
+            getCloudsim().log(
+                    "Starting computational part of job " + job.getTask().getId() + " on VM " + job.getVM().getId());
+        }
         getCloudsim().send(getId(), getId(), actualRuntime, WorkflowEvent.JOB_FINISHED, job);
     }
 
@@ -270,7 +285,9 @@ public class VM extends CWSSimEntity {
     }
 
     private void jobStart(Job job) {
-        getCloudsim().log("Starting job " + job.getTask().getId() + " on VM " + job.getVM().getId());
+        if (getCloudsim().isLogEnabled()) {
+            getCloudsim().log("Starting job " + job.getTask().getId() + " on VM " + job.getVM().getId());
+        }
         // The job is now running
         job.setStartTime(getCloudsim().clock());
         job.setState(Job.State.RUNNING);
@@ -280,11 +297,15 @@ public class VM extends CWSSimEntity {
         // Tell the owner
         getCloudsim().send(getId(), job.getOwner(), 0.0, WorkflowEvent.JOB_STARTED, job);
 
-        getCloudsim().send(getId(), getCloudsim().getEntityId("StorageManager"), 0.0,
-                WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
-
         // One core is now busy running the job
         idleCores--;
+
+        if (synchronousStorage != null) {
+            synchronousStorage.transferInputs(job);
+            allInputsTrasferred(job);
+        } else {
+            getCloudsim().send(getId(), storageManager, 0.0, WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
+        }
     }
 
     private void jobFinish(Job job) {
@@ -293,11 +314,17 @@ public class VM extends CWSSimEntity {
             throw new RuntimeException("Cannot finish job: VM not running");
         }
 
-        getCloudsim().log(
-                "Computational part of job " + job.getTask().getId() + " on VM " + job.getVM().getId() + " finished");
+        if (getCloudsim().isLogEnabled()) {
+            getCloudsim().log("Computational part of job " + job.getTask().getId() + " on VM " + job.getVM().getId()
+                    + " finished");
+        }
 
-        getCloudsim().send(getId(), getCloudsim().getEntityId("StorageManager"), 0.0,
-                WorkflowEvent.STORAGE_AFTER_TASK_COMPLETED, job);
+        if (synchronousStorage != null) {
+            synchronousStorage.transferOutputs(job);
+            allOutputsTransferred(job);
+        } else {
+            getCloudsim().send(getId(), storageManager, 0.0, WorkflowEvent.STORAGE_AFTER_TASK_COMPLETED, job);
+        }
     }
 
     private void startJobs() {
@@ -340,6 +367,14 @@ public class VM extends CWSSimEntity {
         this.cloud = cloud;
     }
 
+    public int getStorageManager() {
+        return storageManager;
+    }
+
+    public void setStorageManager(int storageManager) {
+        this.storageManager = storageManager;
+    }
+
     public int getIdleCores() {
         return idleCores;
     }
@@ -20,10 +20,16 @@ import cws.core.jobs.SimpleJobFactory;
  * The workflow engine is an entity that executes workflows by scheduling their
  * tasks on VMs.
  * 
+ * The scheduler runs after every launched VM and finished job. With
+ * coalesced scheduling they only request scheduling instead, and the scheduler
+ * runs once on a SCHEDULING_REQUEST sent to the engine itself with no delay,
+ * so all the VMs launched and jobs finished together are handled by one pass.
+ * The dynamic schedulers then match jobs to VMs differently, so results
+ * change, see {@link #setCoalesceScheduling(boolean)}.
+ * 
  * @author Gideon Juve <juve@usc.edu>
  */
 public class WorkflowEngine extends CWSSimEntity {
-    public static int next_id = 0;
 
     private LinkedList<DAGJob> dags = new LinkedList<DAGJob>();
 
@@ -53,6 +59,12 @@ public class WorkflowEngine extends CWSSimEntity {
     /** The list of unmatched ready jobs */
     private LinkedList<Job> queue = new LinkedList<Job>();
 
+    /** Whether scheduling passes are coalesced, off by default */
+    private boolean coalesceScheduling;
+
+    /** Whether a SCHEDULING_REQUEST is on its way */
+    private boolean schedulingRequested;
+
     /**
      * A factory for creating Job objects from Task objects
      */
@@ -83,7 +95,7 @@ public class WorkflowEngine extends CWSSimEntity {
     double budget = Double.MAX_VALUE;
 
     public WorkflowEngine(JobFactory jobFactory, Provisioner provisioner, Scheduler scheduler, CloudSimWrapper cloudsim) {
-        super("WorkflowEngine" + (next_id++), cloudsim);
+        super("WorkflowEngine" + cloudsim.nextId(WorkflowEngine.class), cloudsim);
         this.jobFactory = jobFactory;
         this.provisioner = provisioner;
         this.scheduler = scheduler;
@@ -119,6 +131,10 @@ public class WorkflowEngine extends CWSSimEntity {
         case WorkflowEvent.JOB_FINISHED:
             jobFinished((Job) ev.getData());
             break;
+        case WorkflowEvent.SCHEDULING_REQUEST:
+            schedulingRequested = false;
+            scheduler.scheduleJobs(this);
+            break;
         case WorkflowEvent.PROVISIONING_REQUEST:
             if (provisioner != null)
                 if (vms.size() > 0 || dags.size() > 0)
@@ -151,7 +167,20 @@ public class WorkflowEngine extends CWSSimEntity {
     private void vmLaunched(VM vm) {
         vms.add(vm);
         freeVMs.add(vm);
-        scheduler.scheduleJobs(this);
+        requestScheduling();
+    }
+
+    /**
+     * Runs the scheduler now or, with coalesced scheduling, after all the events the engine gets now, once however
+     * many times this is called.
+     */
+    private void requestScheduling() {
+        if (!coalesceScheduling) {
+            scheduler.scheduleJobs(this);
+        } else if (!schedulingRequested) {
+            schedulingRequested = true;
+            getCloudsim().send(getId(), getId(), 0.0, WorkflowEvent.SCHEDULING_REQUEST);
+        }
     }
 
     /**
@@ -231,7 +260,9 @@ public class WorkflowEngine extends CWSSimEntity {
                 }
             }
 
-            getCloudsim().log(" Job " + j.getTask().getId() + " finished on VM " + j.getVM().getId());
+            if (getCloudsim().isLogEnabled()) {
+                getCloudsim().log(" Job " + j.getTask().getId() + " finished on VM " + j.getVM().getId());
+            }
             VM vm = j.getVM();
             // add to free if contained in busy set
             if (busyVMs.remove(vm))
@@ -241,8 +272,10 @@ public class WorkflowEngine extends CWSSimEntity {
         // If the job failed
         if (j.getResult() == Job.Result.FAILURE) {
             // Retry the job
-            getCloudsim()
-                    .log(" Job " + j.getTask().getId() + " failed on VM " + j.getVM().getId() + " resubmitting...");
+            if (getCloudsim().isLogEnabled()) {
+                getCloudsim().log(
+                        " Job " + j.getTask().getId() + " failed on VM " + j.getVM().getId() + " resubmitting...");
+            }
             Job retry = jobFactory.createJob(dj, t, getId(), getCloudsim());
             VM vm = j.getVM();
             // add to free if contained in busy set
@@ -251,7 +284,20 @@ public class WorkflowEngine extends CWSSimEntity {
             jobReleased(retry);
         }
 
-        scheduler.scheduleJobs(this);
+        requestScheduling();
+    }
+
+    public boolean isCoalesceScheduling() {
+        return coalesceScheduling;
+    }
+
+    /**
+     * Enables one scheduling pass for all the VMs launched and jobs finished together. The dynamic schedulers start
+     * every pass from the first free VM and VMs are never marked busy, so a merged pass spreads the jobs over the VMs
+     * where separate passes would queue them on the same ones: simulation results differ from the default.
+     */
+    public void setCoalesceScheduling(boolean coalesceScheduling) {
+        this.coalesceScheduling = coalesceScheduling;
     }
 
     public int getQueueLength() {
@@ -87,6 +87,9 @@ public interface WorkflowEvent {
     /** Submit next provisioning request */
     public static final int PROVISIONING_REQUEST = 22;
 
+    /** Run one scheduling pass for everything released or freed since the last one */
+    public static final int SCHEDULING_REQUEST = 23;
+
     // ///////////////////////////////////////////////////////
     // STORAGE EVENTS
     // ///////////////////////////////////////////////////////
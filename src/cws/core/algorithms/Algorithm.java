@@ -7,6 +7,7 @@ import java.util.List;
 
 import cws.core.cloudsim.CloudSimWrapper;
 import cws.core.dag.DAG;
+import cws.core.provisioner.VMFactory;
 import cws.core.storage.StorageManager;
 import cws.core.storage.VoidStorageManager;
 import cws.core.storage.cache.FIFOCacheManager;
@@ -19,6 +20,9 @@ public abstract class Algorithm {
     protected StorageSimulationParams simulationParams;
 
     protected CloudSimWrapper cloudsim;
+
+    /** Creates VMs with this simulation's delays, runtime variance and failures. **/
+    protected VMFactory vmFactory;
     private double budget;
     private double deadline;
     private List<DAG> dags;
@@ -26,12 +30,13 @@ public abstract class Algorithm {
     protected StorageManager storageManager;
 
     public Algorithm(double budget, double deadline, List<DAG> dags, StorageSimulationParams simulationParams,
-            CloudSimWrapper cloudsim) {
+            CloudSimWrapper cloudsim, VMFactory vmFactory) {
         this.budget = budget;
         this.deadline = deadline;
         this.dags = dags;
         this.simulationParams = simulationParams;
         this.cloudsim = cloudsim;
+        this.vmFactory = vmFactory;
     }
 
     public List<DAG> getDAGs() {
@@ -172,6 +177,10 @@ public abstract class Algorithm {
         return cloudsim;
     }
 
+    public VMFactory getVMFactory() {
+        return vmFactory;
+    }
+
     public StorageManager getStorageManager() {
         return storageManager;
     }
@@ -7,6 +7,7 @@ import cws.core.cloudsim.CloudSimWrapper;
 import cws.core.dag.DAG;
 import cws.core.dag.Task;
 import cws.core.dag.algorithms.TopologicalOrder;
+import cws.core.provisioner.VMFactory;
 
 /**
  * @author Gideon Juve <juve@usc.edu>
@@ -14,8 +15,8 @@ import cws.core.dag.algorithms.TopologicalOrder;
 public class Backtrack extends StaticAlgorithm {
 
     public Backtrack(double budget, double deadline, List<DAG> dags, CloudSimWrapper cloudsim,
-            StorageSimulationParams simulationParams) {
-        super(budget, deadline, dags, cloudsim, simulationParams);
+            StorageSimulationParams simulationParams, VMFactory vmFactory) {
+        super(budget, deadline, dags, cloudsim, simulationParams, vmFactory);
     }
 
     /**
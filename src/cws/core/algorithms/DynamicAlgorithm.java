@@ -25,6 +25,8 @@ public class DynamicAlgorithm extends Algorithm implements DAGJobListener, VMLis
 
     private List<DAG> completedDAGs = new LinkedList<DAG>();
 
+    private boolean coalesceScheduling;
+
     private double actualCost = 0.0;
 
     private double actualDagFinishTime = 0.0;
@@ -35,13 +37,21 @@ public class DynamicAlgorithm extends Algorithm implements DAGJobListener, VMLis
     protected long simulationFinishWallTime;
 
     public DynamicAlgorithm(double budget, double deadline, List<DAG> dags, double price, Scheduler scheduler,
-            Provisioner provisioner, CloudSimWrapper cloudsim, StorageSimulationParams simulationParams) {
-        super(budget, deadline, dags, simulationParams, cloudsim);
+            Provisioner provisioner, CloudSimWrapper cloudsim, StorageSimulationParams simulationParams,
+            VMFactory vmFactory) {
+        super(budget, deadline, dags, simulationParams, cloudsim, vmFactory);
         this.price = price;
         this.provisioner = provisioner;
         this.scheduler = scheduler;
     }
 
+    /**
+     * @see WorkflowEngine#setCoalesceScheduling(boolean)
+     */
+    public void setCoalesceScheduling(boolean coalesceScheduling) {
+        this.coalesceScheduling = coalesceScheduling;
+    }
+
     @Override
     public double getActualCost() {
         return actualCost;
@@ -97,6 +107,7 @@ public class DynamicAlgorithm extends Algorithm implements DAGJobListener, VMLis
         WorkflowEngine engine = new WorkflowEngine(new SimpleJobFactory(1000), provisioner, scheduler, cloudsim);
         engine.setDeadline(getDeadline());
         engine.setBudget(getBudget());
+        engine.setCoalesceScheduling(coalesceScheduling);
 
         engine.addJobListener(this);
 
@@ -145,7 +156,7 @@ public class DynamicAlgorithm extends Algorithm implements DAGJobListener, VMLis
             VMStaticParams vmStaticParams = VMStaticParams.getDefaults();
             vmStaticParams.setPrice(price);
 
-            VM vm = VMFactory.createVM(vmStaticParams, cloudsim);
+            VM vm = vmFactory.createVM(vmStaticParams, cloudsim);
             vms.add(vm);
             cloudsim.send(engine.getId(), cloud.getId(), 0.0, WorkflowEvent.VM_LAUNCH, vm);
         }
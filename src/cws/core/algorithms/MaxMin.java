@@ -4,11 +4,12 @@ import java.util.List;
 
 import cws.core.cloudsim.CloudSimWrapper;
 import cws.core.dag.DAG;
+import cws.core.provisioner.VMFactory;
 
 public class MaxMin extends MinMin {
     public MaxMin(double budget, double deadline, List<DAG> dags, CloudSimWrapper cloudsim,
-            StorageSimulationParams simulationParams) {
-        super(budget, deadline, dags, cloudsim, simulationParams);
+            StorageSimulationParams simulationParams, VMFactory vmFactory) {
+        super(budget, deadline, dags, cloudsim, simulationParams, vmFactory);
     }
 
     /**
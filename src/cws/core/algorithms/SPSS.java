@@ -10,6 +10,7 @@ import cws.core.cloudsim.CloudSimWrapper;
 import cws.core.dag.DAG;
 import cws.core.dag.Task;
 import cws.core.dag.algorithms.TopologicalOrder;
+import cws.core.provisioner.VMFactory;
 
 /**
  * @author Gideon Juve <juve@usc.edu>
@@ -20,8 +21,8 @@ public class SPSS extends StaticAlgorithm {
     private double alpha;
 
     public SPSS(double budget, double deadline, List<DAG> dags, double alpha, CloudSimWrapper cloudsim,
-            StorageSimulationParams simulationParams) {
-        super(budget, deadline, dags, cloudsim, simulationParams);
+            StorageSimulationParams simulationParams, VMFactory vmFactory) {
+        super(budget, deadline, dags, cloudsim, simulationParams, vmFactory);
         this.alpha = alpha;
     }
 
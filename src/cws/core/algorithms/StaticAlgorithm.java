@@ -7,6 +7,7 @@ import cws.core.cloudsim.CloudSimWrapper;
 import cws.core.dag.DAG;
 import cws.core.dag.DAGJob;
 import cws.core.dag.DAGJobListener;
+import cws.core.dag.IndexedDAG;
 import cws.core.dag.Task;
 import cws.core.dag.algorithms.CriticalPath;
 import cws.core.dag.algorithms.TopologicalOrder;
@@ -57,8 +58,8 @@ public abstract class StaticAlgorithm extends Algorithm implements Provisioner,
     protected long simulationFinishWallTime;
 
     public StaticAlgorithm(double budget, double deadline, List<DAG> dags, CloudSimWrapper cloudsim,
-            StorageSimulationParams simulationParams) {
-        super(budget, deadline, dags, simulationParams, cloudsim);
+            StorageSimulationParams simulationParams, VMFactory vmFactory) {
+        super(budget, deadline, dags, simulationParams, cloudsim, vmFactory);
     }
 
     @Override
@@ -172,7 +173,7 @@ public abstract class StaticAlgorithm extends Algorithm implements Provisioner,
             vmStaticParams.setMips(type.getMips());
             vmStaticParams.setCores(1);
             vmStaticParams.setPrice(type.getPrice());
-            VM vm = VMFactory.createVM(vmStaticParams, getCloudsim());
+            VM vm = vmFactory.createVM(vmStaticParams, getCloudsim());
 
             // Build task<->vm mappings
             LinkedList<Task> vmQueue = new LinkedList<Task>();
@@ -210,18 +211,14 @@ public abstract class StaticAlgorithm extends Algorithm implements Provisioner,
             throw new RuntimeException("Invalid alpha: " + alpha + ". Valid range is [0,1].");
         }
 
+        IndexedDAG graph = order.getIndexedDAG();
+        int[] postorder = order.getPostorder();
+        int[] parentOffsets = graph.getParentOffsets();
+        int[] parents = graph.getParentIndices();
+
         // The level of each task is max[p in parents](p.level) + 1
-        HashMap<Task, Integer> levels = new HashMap<Task, Integer>();
-        int numlevels = 0;
-        for (Task t : order) {
-            int level = 0;
-            for (Task p : t.getParents()) {
-                int plevel = levels.get(p);
-                level = Math.max(level, plevel + 1);
-            }
-            levels.put(t, level);
-            numlevels = Math.max(numlevels, level + 1);
-        }
+        int[] levels = order.getLevels();
+        int numlevels = order.getNumLevels();
 
         /*
          * Compute:
@@ -238,7 +235,7 @@ public abstract class StaticAlgorithm extends Algorithm implements Provisioner,
 
         for (Task t : order) {
             double runtime = runtimes.get(t);
-            int level = levels.get(t);
+            int level = levels[t.getIndex()];
 
             totalRuntime += runtime;
             totalRuntimesByLevel[level] += runtime;
@@ -279,17 +276,19 @@ public abstract class StaticAlgorithm extends Algorithm implements Provisioner,
          * 
          * t.deadline = max[p in t.parents](p.deadline) + t.runtime + shares[t.level]
          */
+        double[] taskDeadlines = new double[graph.numTasks()];
         HashMap<Task, Double> deadlines = new HashMap<Task, Double>();
-        for (Task t : order) {
-            int level = levels.get(t);
+        for (int i = postorder.length - 1; i >= 0; i--) {
+            int t = postorder[i];
+            Task task = graph.getTask(t);
             double latestDeadline = 0.0;
-            for (Task p : t.getParents()) {
-                double pdeadline = deadlines.get(p);
-                latestDeadline = Math.max(latestDeadline, pdeadline);
+            for (int j = parentOffsets[t]; j < parentOffsets[t + 1]; j++) {
+                latestDeadline = Math.max(latestDeadline, taskDeadlines[parents[j]]);
             }
-            double runtime = runtimes.get(t);
-            double deadline = latestDeadline + runtime + shares[level];
-            deadlines.put(t, deadline);
+            double runtime = runtimes.get(task);
+            double deadline = latestDeadline + runtime + shares[levels[t]];
+            taskDeadlines[t] = deadline;
+            deadlines.put(task, deadline);
         }
 
         return deadlines;
@@ -517,9 +516,10 @@ public abstract class StaticAlgorithm extends Algorithm implements Provisioner,
     protected TopologicalOrder computeTopologicalOrder(DAG dag, HashMap<Task, VMType> vmTypes,
             HashMap<Task, Double> runtimes) throws NoFeasiblePlan {
         TopologicalOrder order = new TopologicalOrder(dag);
+        double[] transfers = order.getIndexedDAG().getTransferTimeEstimations(storageManager);
         for (Task t : order) {
             vmTypes.put(t, t.getVmType());
-            double runtime = t.getPredictedRuntime(storageManager);
+            double runtime = t.getPredictedRuntime(transfers[t.getIndex()]);
             runtimes.put(t, runtime);
         }
 
@@ -546,10 +546,8 @@ public abstract class StaticAlgorithm extends Algorithm implements Provisioner,
         }
     }
 
-    static int nextresourceid = 0;
-
     class Resource {
-        int id = nextresourceid++;
+        int id = getCloudsim().nextId(Resource.class);
         VMType vmtype;
         TreeMap<Double, Slot> schedule;
 
@@ -4,9 +4,19 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.PrintStream;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -17,14 +27,19 @@ import org.apache.commons.cli.ParseException;
 import org.apache.commons.cli.PosixParser;
 import org.apache.commons.io.IOUtils;
 
+import cws.core.WorkflowEvent;
 import cws.core.cloudsim.CloudSimWrapper;
+import cws.core.cloudsim.EventQueueType;
+import cws.core.cloudsim.SimulationMetrics;
 import cws.core.dag.DAG;
+import cws.core.dag.DAGCache;
+import cws.core.dag.DAGConverter;
 import cws.core.dag.DAGListGenerator;
-import cws.core.dag.DAGParser;
 import cws.core.dag.DAGStats;
-import cws.core.dag.Task;
+import cws.core.dag.DAGTemplate;
 import cws.core.exception.IllegalCWSArgumentException;
 import cws.core.provisioner.VMFactory;
+import cws.core.storage.StorageManager;
 import cws.core.storage.StorageManagerStatistics;
 import cws.core.storage.global.GlobalStorageParams;
 
@@ -33,6 +48,12 @@ public class TestRun {
     private static final String DEFAULT_SCALING_FACTOR = "1.0";
     private static final String DEFAULT_STORAGE_CACHE = "void";
     private static final String DEFAULT_ENABLE_LOGGING = "false";
+    private static final String DEFAULT_THREADS = "1";
+    private static final String DEFAULT_BINARY_DAGS = "false";
+    private static final String DEFAULT_DAG_CACHE_SIZE = DAGCache.DEFAULT_MAX_SIZE + "";
+    private static final String DEFAULT_EVENT_QUEUE = "heap";
+    private static final String DEFAULT_COALESCE_SCHEDULING = "false";
+    private static final Map<Integer, String> EVENT_NAMES = eventNames();
 
     public static Options buildOptions() {
         Options options = new Options();
@@ -91,6 +112,32 @@ public class TestRun {
         enableLogging.setArgName("BOOL");
         options.addOption(enableLogging);
 
+        Option threads = new Option("th", "threads", true, "Number of DAGs loaded and grid cells simulated "
+                + "concurrently, defaults to " + DEFAULT_THREADS);
+        threads.setArgName("N");
+        options.addOption(threads);
+
+        Option binaryDags = new Option("bin", "binary-dags", true, "Whether to load .bdag files converted by "
+                + "DAGConverter instead of .dag files, defaults to " + DEFAULT_BINARY_DAGS);
+        binaryDags.setArgName("BOOL");
+        options.addOption(binaryDags);
+
+        Option dagCacheSize = new Option("dcs", "dag-cache-size", true, "Bytes of parsed DAGs kept in memory for "
+                + "later runs, defaults to " + DEFAULT_DAG_CACHE_SIZE);
+        dagCacheSize.setArgName("BYTES");
+        options.addOption(dagCacheSize);
+
+        Option eventQueue = new Option("eq", "event-queue", true, "Future event queue of the simulations, heap or "
+                + "calendar, defaults to " + DEFAULT_EVENT_QUEUE);
+        eventQueue.setArgName("QUEUE");
+        options.addOption(eventQueue);
+
+        Option coalesceScheduling = new Option("csch", "coalesce-scheduling", true, "Whether dynamic algorithms run "
+                + "one scheduling pass for all the VMs launched and jobs finished together, changes their results, "
+                + "defaults to " + DEFAULT_COALESCE_SCHEDULING);
+        coalesceScheduling.setArgName("BOOL");
+        options.addOption(coalesceScheduling);
+
         GlobalStorageParams.buildCliOptions(options);
         VMFactory.buildCliOptions(options);
         return options;
@@ -139,8 +186,28 @@ public class TestRun {
         Long seed = Long.parseLong(args.getOptionValue("seed", System.currentTimeMillis() + ""));
         String storageCacheType = args.getOptionValue("storage-cache", DEFAULT_STORAGE_CACHE);
         Boolean enableLogging = Boolean.valueOf(args.getOptionValue("enable-logging", DEFAULT_ENABLE_LOGGING));
+        Integer threads = Integer.parseInt(args.getOptionValue("threads", DEFAULT_THREADS));
+        if (threads < 1) {
+            throw new IllegalCWSArgumentException("Wrong threads:" + threads);
+        }
+        Boolean binaryDags = Boolean.valueOf(args.getOptionValue("binary-dags", DEFAULT_BINARY_DAGS));
+        Long dagCacheSize = Long.parseLong(args.getOptionValue("dag-cache-size", DEFAULT_DAG_CACHE_SIZE));
+        if (dagCacheSize < 0) {
+            throw new IllegalCWSArgumentException("Wrong dag-cache-size:" + dagCacheSize);
+        }
+        String eventQueueName = args.getOptionValue("event-queue", DEFAULT_EVENT_QUEUE);
+        Boolean coalesceScheduling = Boolean.valueOf(args.getOptionValue("coalesce-scheduling",
+                DEFAULT_COALESCE_SCHEDULING));
+        EventQueueType eventQueueType;
+        if (eventQueueName.equals("heap")) {
+            eventQueueType = EventQueueType.HEAP;
+        } else if (eventQueueName.equals("calendar")) {
+            eventQueueType = EventQueueType.CALENDAR;
+        } else {
+            throw new IllegalCWSArgumentException("Wrong event-queue:" + eventQueueName);
+        }
 
-        VMFactory.readCliOptions(args, seed);
+        VMFactory vmFactory = VMFactory.readCliOptions(args, seed);
 
         CloudSimWrapper cloudsim = new CloudSimWrapper();
         cloudsim.init();
@@ -202,50 +269,87 @@ public class TestRun {
         System.out.printf("seed = %d\n", seed);
         System.out.printf("storageManagerType = %s\n", storageManagerType);
         System.out.printf("storageCache = %s\n", storageCacheType);
+        System.out.printf("threads = %d\n", threads);
+        System.out.printf("binaryDags = %b\n", binaryDags);
+        System.out.printf("dagCacheSize = %d\n", dagCacheSize);
+        System.out.printf("eventQueue = %s\n", eventQueueName);
+        System.out.printf("coalesceScheduling = %b\n", coalesceScheduling);
+        System.out.printf("runtimeVariance = %f\n", vmFactory.getRuntimeVariance());
+        System.out.printf("delay = %f\n", vmFactory.getDelay());
+        System.out.printf("failureRate = %f\n", vmFactory.getFailureRate());
+        System.out.printf("cacheSize = %d\n", vmFactory.getCacheSize());
 
         double minTime = Double.MAX_VALUE;
         double minCost = Double.MAX_VALUE;
         double maxCost = 0.0;
         double maxTime = 0.0;
 
-        List<DAG> dags = new ArrayList<DAG>();
-        for (String name : names) {
-            System.out.println(name);
-            DAG dag = DAGParser.parseDAG(new File(name));
-            dags.add(dag);
-
-            if (scalingFactor > 1.0) {
-                for (String tid : dag.getTasks()) {
-                    Task t = dag.getTaskById(tid);
-                    t.scaleSize(scalingFactor);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        PrintStream fileOut = null;
+        try {
+            // Ensembles often draw the same file several times, every file is loaded and measured once. Transfer
+            // estimates only depend on the storage parameters, so all the DAGs share one storage manager.
+            DAGCache dagCache = DAGCache.getInstance();
+            dagCache.setMaxSize(dagCacheSize);
+            StorageManager estimator = Algorithm.initializeStorage(simulationParams, cloudsim);
+            double dagScalingFactor = scalingFactor > 1.0 ? scalingFactor : 1.0;
+            Map<String, Future<DAGLoader>> loaders = new HashMap<String, Future<DAGLoader>>();
+            for (int i = 0; i < names.length; i++) {
+                if (binaryDags) {
+                    names[i] = DAGConverter.getOutputFile(new File(names[i]), null).getPath();
+                }
+                System.out.println(names[i]);
+                if (!loaders.containsKey(names[i])) {
+                    loaders.put(names[i], executor.submit(new DAGLoader(dagCache, new File(names[i]),
+                            dagScalingFactor, estimator)));
                 }
             }
 
-            DAGStats dagStats = new DAGStats(dag, Algorithm.initializeStorage(simulationParams, cloudsim));
+            // The bounds are reduced in ensemble order, so they do not depend on the threads
+            List<DAG> dags = new ArrayList<DAG>();
+            for (String name : names) {
+                DAGLoader loader = getResult(loaders.get(name));
+                dags.add(loader.template.instantiate(dagScalingFactor));
 
-            minTime = Math.min(minTime, dagStats.getCriticalPath());
-            minCost = Math.min(minCost, dagStats.getMinCost());
+                minTime = Math.min(minTime, loader.stats.getCriticalPath());
+                minCost = Math.min(minCost, loader.stats.getMinCost());
 
-            maxTime += dagStats.getCriticalPath();
-            maxCost += dagStats.getMinCost();
-        }
+                maxTime += loader.stats.getCriticalPath();
+                maxCost += loader.stats.getMinCost();
+            }
 
-        int nbudgets = 10;
-        int ndeadlines = 10;
+            int nbudgets = 10;
+            int ndeadlines = 10;
 
-        double minBudget = Math.ceil(minCost);
-        double maxBudget = Math.ceil(maxCost);
-        double budgetStep = (maxBudget - minBudget) / (nbudgets - 1);
+            double minBudget = Math.ceil(minCost);
+            double maxBudget = Math.ceil(maxCost);
+            double budgetStep = (maxBudget - minBudget) / (nbudgets - 1);
 
-        double minDeadline = Math.ceil(minTime);
-        double maxDeadline = Math.ceil(maxTime);
-        double deadlineStep = (maxDeadline - minDeadline) / (ndeadlines - 1);
+            double minDeadline = Math.ceil(minTime);
+            double maxDeadline = Math.ceil(maxTime);
+            double deadlineStep = (maxDeadline - minDeadline) / (ndeadlines - 1);
 
-        System.out.printf("budget = %f %f %f\n", minBudget, maxBudget, budgetStep);
-        System.out.printf("deadline = %f %f %f\n", minDeadline, maxDeadline, deadlineStep);
+            System.out.printf("dagCache = %d hits %d misses %d evictions\n", dagCache.getHits(),
+                    dagCache.getMisses(), dagCache.getEvictions());
+            System.out.printf("budget = %f %f %f\n", minBudget, maxBudget, budgetStep);
+            System.out.printf("deadline = %f %f %f\n", minDeadline, maxDeadline, deadlineStep);
+
+            // Submit the whole grid up front, rows are written in grid order as soon as they are ready
+            List<List<Future<String>>> grid = new ArrayList<List<Future<String>>>();
+            for (double budget = minBudget; budget < maxBudget + (budgetStep / 2.0); budget += budgetStep) {
+                List<Future<String>> row = new ArrayList<Future<String>>();
+                for (double deadline = minDeadline; deadline < maxDeadline + (deadlineStep / 2.0); deadline += deadlineStep) {
+                    // Every cell gets its own identically seeded factory, so results do not depend on the threads.
+                    // Before, one factory's runtime variance and failure streams ran on from cell to cell, so runs
+                    // with -rv or -fr give different results than they used to for the same seed.
+                    row.add(executor.submit(new SweepCell(alpha, maxScaling, algorithmName, simulationParams, dags,
+                            budget, deadline, application, distribution, seed, ensembleSize, scalingFactor,
+                            storageManagerType, minBudget, maxBudget, minDeadline, maxDeadline,
+                            VMFactory.readCliOptions(args, seed), eventQueueType, coalesceScheduling)));
+                }
+                grid.add(row);
+            }
 
-        PrintStream fileOut = null;
-        try {
             fileOut = new PrintStream(new FileOutputStream(outputfile));
             fileOut.println("application,distribution,seed,dags,scale,budget,"
                     + "deadline,algorithm,completed,exponential,linear,"
@@ -254,63 +358,230 @@ public class TestRun {
                     + "storageManagerType,totalBytesToRead,totalBytesToWrite,totalBytesToTransfer,"
                     + "actualBytesRead,actualBytesTransferred,"
                     + "totalFilesToRead,totalFilesToWrite,totalFilesToTransfer,"
-                    + "actualFilesRead,actualFilesTransferred");
+                    + "actualFilesRead,actualFilesTransferred,"
+                    + "events,cancelledEvents,peakQueueDepth,eventsPerSecond,eventsByTag,eventsByEntity");
 
-            for (double budget = minBudget; budget < maxBudget + (budgetStep / 2.0); budget += budgetStep) {
+            for (List<Future<String>> row : grid) {
                 System.out.println();
-                for (double deadline = minDeadline; deadline < maxDeadline + (deadlineStep / 2.0); deadline += deadlineStep) {
+                for (Future<String> cell : row) {
+                    fileOut.print(getResult(cell));
                     System.out.print(".");
-                    Algorithm algorithm = createAlgorithm(alpha, maxScaling, algorithmName, cloudsim, simulationParams,
-                            dags, budget, deadline);
-
-                    algorithm.simulate(algorithmName);
-
-                    double planningTime = algorithm.getPlanningnWallTime() / 1.0e9;
-                    double simulationTime = algorithm.getSimulationWallTime() / 1.0e9;
-
-                    fileOut.printf("%s,%s,%d,%d,", application, distribution, seed, ensembleSize);
-                    fileOut.printf("%f,%f,%f,%s,", scalingFactor, budget, deadline, algorithm.getName());
-                    fileOut.printf("%d,%.20f,%.20f,%f,", algorithm.numCompletedDAGs(), algorithm.getExponentialScore(),
-                            algorithm.getLinearScore(), planningTime);
-                    fileOut.printf("%f,%s,%f,%f,%f,", simulationTime, algorithm.getScoreBitString(),
-                            algorithm.getActualCost(), algorithm.getActualJobFinishTime(),
-                            algorithm.getActualDagFinishTime());
-                    fileOut.printf("%f,%f,%f,%f,%f,%f,%f,%f,", algorithm.getActualVMFinishTime(),
-                            VMFactory.getRuntimeVariance(), VMFactory.getDelay(), VMFactory.getFailureRate(),
-                            minBudget, maxBudget, minDeadline, maxDeadline);
-
-                    StorageManagerStatistics stats = algorithm.getStorageManager().getStorageManagerStatistics();
-                    fileOut.printf("%s,%d,%d,%d,%d,%d,", storageManagerType, stats.getTotalBytesToRead(),
-                            stats.getTotalBytesToWrite(), stats.getTotalBytesToRead() + stats.getTotalBytesToWrite(),
-                            stats.getActualBytesRead(), stats.getActualBytesRead() + stats.getTotalBytesToWrite());
-
-                    fileOut.printf("%d,%d,%d,%d,%d\n", stats.getTotalFilesToRead(), stats.getTotalFilesToWrite(),
-                            stats.getTotalFilesToRead() + stats.getTotalFilesToWrite(), stats.getActualFilesRead(),
-                            stats.getActualFilesRead() + stats.getTotalFilesToWrite());
                 }
             }
         } catch (FileNotFoundException e) {
             throw new RuntimeException(e);
         } finally {
+            executor.shutdownNow();
             IOUtils.closeQuietly(fileOut);
         }
     }
 
+    /**
+     * Waits for the given task and returns its result. Runtime exceptions thrown by the task are rethrown as-is.
+     */
+    private static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Loads the template of one ensemble file and computes the stats of its DAGs. Loaders of different files run
+     * concurrently, they share the cache and the storage manager used for transfer estimates.
+     */
+    private static class DAGLoader implements Callable<DAGLoader> {
+        private final DAGCache dagCache;
+        private final File file;
+        private final double scalingFactor;
+        private final StorageManager estimator;
+        private DAGTemplate template;
+        private DAGStats stats;
+
+        public DAGLoader(DAGCache dagCache, File file, double scalingFactor, StorageManager estimator) {
+            this.dagCache = dagCache;
+            this.file = file;
+            this.scalingFactor = scalingFactor;
+            this.estimator = estimator;
+        }
+
+        @Override
+        public DAGLoader call() {
+            template = dagCache.getTemplate(file);
+            stats = new DAGStats(template.instantiate(scalingFactor), estimator);
+            return this;
+        }
+    }
+
+    /**
+     * Single (budget, deadline) point of the sweep. Simulates the algorithm with its own CloudSimWrapper and formats
+     * the resulting CSV row.
+     */
+    private class SweepCell implements Callable<String> {
+        private final double alpha;
+        private final double maxScaling;
+        private final String algorithmName;
+        private final StorageSimulationParams simulationParams;
+        private final List<DAG> dags;
+        private final double budget;
+        private final double deadline;
+        private final String application;
+        private final String distribution;
+        private final long seed;
+        private final int ensembleSize;
+        private final double scalingFactor;
+        private final String storageManagerType;
+        private final double minBudget;
+        private final double maxBudget;
+        private final double minDeadline;
+        private final double maxDeadline;
+        private final VMFactory vmFactory;
+        private final EventQueueType eventQueueType;
+        private final boolean coalesceScheduling;
+
+        public SweepCell(double alpha, double maxScaling, String algorithmName,
+                StorageSimulationParams simulationParams, List<DAG> dags, double budget, double deadline,
+                String application, String distribution, long seed, int ensembleSize, double scalingFactor,
+                String storageManagerType, double minBudget, double maxBudget, double minDeadline, double maxDeadline,
+                VMFactory vmFactory, EventQueueType eventQueueType, boolean coalesceScheduling) {
+            this.alpha = alpha;
+            this.maxScaling = maxScaling;
+            this.algorithmName = algorithmName;
+            this.simulationParams = simulationParams;
+            this.dags = dags;
+            this.budget = budget;
+            this.deadline = deadline;
+            this.application = application;
+            this.distribution = distribution;
+            this.seed = seed;
+            this.ensembleSize = ensembleSize;
+            this.scalingFactor = scalingFactor;
+            this.storageManagerType = storageManagerType;
+            this.minBudget = minBudget;
+            this.maxBudget = maxBudget;
+            this.minDeadline = minDeadline;
+            this.maxDeadline = maxDeadline;
+            this.vmFactory = vmFactory;
+            this.eventQueueType = eventQueueType;
+            this.coalesceScheduling = coalesceScheduling;
+        }
+
+        @Override
+        public String call() {
+            CloudSimWrapper cloudsim = new CloudSimWrapper(eventQueueType);
+            Algorithm algorithm = createAlgorithm(alpha, maxScaling, algorithmName, cloudsim, simulationParams,
+                    dags, budget, deadline, vmFactory);
+            if (algorithm instanceof DynamicAlgorithm) {
+                ((DynamicAlgorithm) algorithm).setCoalesceScheduling(coalesceScheduling);
+            }
+            algorithm.simulate(algorithmName);
+
+            double planningTime = algorithm.getPlanningnWallTime() / 1.0e9;
+            double simulationTime = algorithm.getSimulationWallTime() / 1.0e9;
+
+            Formatter row = new Formatter();
+            row.format("%s,%s,%d,%d,", application, distribution, seed, ensembleSize);
+            row.format("%f,%f,%f,%s,", scalingFactor, budget, deadline, algorithm.getName());
+            row.format("%d,%.20f,%.20f,%f,", algorithm.numCompletedDAGs(), algorithm.getExponentialScore(),
+                    algorithm.getLinearScore(), planningTime);
+            row.format("%f,%s,%f,%f,%f,", simulationTime, algorithm.getScoreBitString(), algorithm.getActualCost(),
+                    algorithm.getActualJobFinishTime(), algorithm.getActualDagFinishTime());
+            row.format("%f,%f,%f,%f,%f,%f,%f,%f,", algorithm.getActualVMFinishTime(),
+                    vmFactory.getRuntimeVariance(), vmFactory.getDelay(), vmFactory.getFailureRate(), minBudget,
+                    maxBudget, minDeadline, maxDeadline);
+
+            StorageManagerStatistics stats = algorithm.getStorageManager().getStorageManagerStatistics();
+            row.format("%s,%d,%d,%d,%d,%d,", storageManagerType, stats.getTotalBytesToRead(),
+                    stats.getTotalBytesToWrite(), stats.getTotalBytesToRead() + stats.getTotalBytesToWrite(),
+                    stats.getActualBytesRead(), stats.getActualBytesRead() + stats.getTotalBytesToWrite());
+
+            row.format("%d,%d,%d,%d,%d,", stats.getTotalFilesToRead(), stats.getTotalFilesToWrite(),
+                    stats.getTotalFilesToRead() + stats.getTotalFilesToWrite(), stats.getActualFilesRead(),
+                    stats.getActualFilesRead() + stats.getTotalFilesToWrite());
+
+            SimulationMetrics metrics = cloudsim.getMetrics();
+            row.format("%d,%d,%d,%f,%s,%s\n", metrics.getEvents(), metrics.getCancelledEvents(),
+                    metrics.getPeakQueueDepth(), metrics.getEventsPerSecond(), formatEventsByTag(metrics),
+                    formatEventsByEntity(cloudsim));
+            String result = row.toString();
+            row.close();
+            return result;
+        }
+    }
+
+    /**
+     * @return Space separated "TAG=count" pairs of the processed events, in tag order.
+     */
+    private static String formatEventsByTag(SimulationMetrics metrics) {
+        StringBuilder b = new StringBuilder();
+        for (int tag : metrics.getTags()) {
+            if (b.length() > 0) {
+                b.append(' ');
+            }
+            String name = EVENT_NAMES.get(tag);
+            b.append(name != null ? name : Integer.toString(tag)).append('=').append(metrics.getEventsByTag(tag));
+        }
+        return b.toString();
+    }
+
+    /**
+     * @return Space separated "Class=count" pairs of the processed events, summed over entities of the same class.
+     */
+    private static String formatEventsByEntity(CloudSimWrapper cloudsim) {
+        SimulationMetrics metrics = cloudsim.getMetrics();
+        Map<String, Long> eventsByClass = new TreeMap<String, Long>();
+        for (int id = 0; id < cloudsim.getNumEntities(); id++) {
+            String kind = cloudsim.getEntity(id).getClass().getSimpleName();
+            Long count = eventsByClass.get(kind);
+            eventsByClass.put(kind, (count == null ? 0 : count) + metrics.getEventsByEntity(id));
+        }
+        StringBuilder b = new StringBuilder();
+        for (Map.Entry<String, Long> entry : eventsByClass.entrySet()) {
+            if (b.length() > 0) {
+                b.append(' ');
+            }
+            b.append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return b.toString();
+    }
+
+    /**
+     * Names of the {@link WorkflowEvent} tags, by value.
+     */
+    private static Map<Integer, String> eventNames() {
+        Map<Integer, String> names = new HashMap<Integer, String>();
+        for (Field field : WorkflowEvent.class.getFields()) {
+            try {
+                names.put(field.getInt(null), field.getName());
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return names;
+    }
+
     /**
      * Crates algorithm instance from the given input params.
      * @return The newly created algorithm instance.
      */
     protected Algorithm createAlgorithm(double alpha, double maxScaling, String algorithmName,
             CloudSimWrapper cloudsim, StorageSimulationParams simulationParams, List<DAG> dags, double budget,
-            double deadline) {
+            double deadline, VMFactory vmFactory) {
         if ("SPSS".equals(algorithmName)) {
-            return new SPSS(budget, deadline, dags, alpha, cloudsim, simulationParams);
+            return new SPSS(budget, deadline, dags, alpha, cloudsim, simulationParams, vmFactory);
         } else if ("DPDS".equals(algorithmName)) {
             return new DPDS(budget, deadline, dags, VMType.DEFAULT_VM_TYPE.getPrice(), maxScaling, cloudsim,
-                    simulationParams);
+                    simulationParams, vmFactory);
         } else if ("WADPDS".equals(algorithmName)) {
             return new WADPDS(budget, deadline, dags, VMType.DEFAULT_VM_TYPE.getPrice(), maxScaling, cloudsim,
-                    simulationParams);
+                    simulationParams, vmFactory);
         } else {
             throw new IllegalCWSArgumentException("Unknown algorithm: " + algorithmName);
         }
@@ -4,6 +4,7 @@ import java.util.List;
 
 import cws.core.cloudsim.CloudSimWrapper;
 import cws.core.dag.DAG;
+import cws.core.provisioner.VMFactory;
 
 /**
  * @author Gideon Juve <juve@usc.edu>
@@ -11,8 +12,8 @@ import cws.core.dag.DAG;
 public class Wide extends Backtrack {
 
     public Wide(double budget, double deadline, List<DAG> dags, CloudSimWrapper cloudsim,
-            StorageSimulationParams params) {
-        super(budget, deadline, dags, cloudsim, params);
+            StorageSimulationParams params, VMFactory vmFactory) {
+        super(budget, deadline, dags, cloudsim, params, vmFactory);
     }
 
     @Override
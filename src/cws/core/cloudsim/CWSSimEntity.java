@@ -1,43 +1,70 @@
 package cws.core.cloudsim;
 
-import org.cloudbus.cloudsim.core.SimEntity;
-import org.cloudbus.cloudsim.core.SimEvent;
+/**
+ * Base class of all simulation entities. Each entity belongs to exactly one {@link CloudSimWrapper} and registers
+ * itself in it on construction.
+ */
+public abstract class CWSSimEntity {
 
-public abstract class CWSSimEntity extends SimEntity {
+    private final String name;
+
+    private int id = -1;
 
     private CloudSimWrapper cloudsim;
 
     public CWSSimEntity(String name, CloudSimWrapper cloudsim) {
-        super(name);
+        if (name.indexOf(" ") != -1) {
+            throw new IllegalArgumentException("Entity names can't contain spaces.");
+        }
+        this.name = name;
         this.cloudsim = cloudsim;
+        cloudsim.addEntity(this);
     }
 
-    protected CloudSimWrapper getCloudsim() {
-        return cloudsim;
+    public String getName() {
+        return name;
     }
 
-    @Deprecated
-    @Override
-    protected void send(int entityId, double delay, int cloudSimTag) {
-        super.send(entityId, delay, cloudSimTag);
+    /**
+     * @return The id assigned to this entity by its {@link CloudSimWrapper}, -1 when not registered yet.
+     */
+    public int getId() {
+        return id;
     }
 
-    @Deprecated
-    @Override
-    protected void send(int entityId, double delay, int cloudSimTag, Object data) {
-        super.send(entityId, delay, cloudSimTag, data);
+    void setId(int id) {
+        this.id = id;
     }
 
-    @Deprecated
+    /**
+     * Entities are hashed by their id (equality stays identity), so that hash based collections of entities iterate in
+     * the same order in every run.
+     */
     @Override
-    protected void send(String entityName, double delay, int cloudSimTag, Object data) {
-        super.send(entityName, delay, cloudSimTag, data);
+    public int hashCode() {
+        return id;
     }
 
-    @Deprecated
-    @Override
-    protected void send(String entityName, double delay, int cloudSimTag) {
-        super.send(entityName, delay, cloudSimTag);
+    protected CloudSimWrapper getCloudsim() {
+        return cloudsim;
+    }
+
+    /**
+     * Sends an event from this entity with no delay. Events to invalid (negative) ids and events sent when the
+     * simulation is not running are ignored.
+     */
+    protected void sendNow(int entityId, int tag, Object data) {
+        if (entityId < 0 || !cloudsim.isRunning()) {
+            return;
+        }
+        cloudsim.send(getId(), entityId, 0.0, tag, data);
+    }
+
+    /**
+     * Calls {@link #sendNow(int, int, Object)} with null data.
+     */
+    protected void sendNow(int entityId, int tag) {
+        sendNow(entityId, tag, null);
     }
 
     /**
@@ -47,26 +74,18 @@ public abstract class CWSSimEntity extends SimEntity {
         // Do nothing by default
     }
 
-    @Deprecated
-    @Override
-    public final void processEvent(SimEvent ev) {
-        processEvent(new CWSSimEvent(ev));
-    }
-
     /**
-     * This is overridden and does nothing by default, because almost everywhere we do nothing in this method.
-     * @see SimEntity#startEntity()
+     * Called once when the simulation starts. Does nothing by default, because almost everywhere we do nothing in
+     * this method.
      */
-    @Override
     public void startEntity() {
         // Do nothing by default
     }
 
     /**
-     * This is overridden and does nothing by default, because almost everywhere we do nothing in this method.
-     * @see SimEntity#shutdownEntity()
+     * Called once when the simulation ends. Does nothing by default, because almost everywhere we do nothing in this
+     * method.
      */
-    @Override
     public void shutdownEntity() {
         // Do nothing by default
     }
@@ -1,127 +1,88 @@
 package cws.core.cloudsim;
 
-import org.cloudbus.cloudsim.core.SimEvent;
-
+/**
+ * An event exchanged between {@link CWSSimEntity} objects of a single {@link CloudSimWrapper} simulation.
+ */
 public class CWSSimEvent {
-    private SimEvent simEvent;
-
-    public CWSSimEvent(SimEvent simEvent) {
-        this.simEvent = simEvent;
+    private final double time;
+    private final long serial;
+    private final int source;
+    private final int destination;
+    private final int tag;
+    private final Object data;
+    private boolean cancelled;
+
+    /** Next event in the same bucket of a {@link CalendarEventQueue} */
+    CWSSimEvent next;
+
+    /** Position in a {@link HeapEventQueue}, -1 when not queued there */
+    int index = -1;
+
+    CWSSimEvent(double time, long serial, int source, int destination, int tag, Object data) {
+        this.time = time;
+        this.serial = serial;
+        this.source = source;
+        this.destination = destination;
+        this.tag = tag;
+        this.data = data;
     }
 
-    /**
-     * @return
-     * @see org.cloudbus.cloudsim.core.SimEvent#toString()
-     */
     @Override
     public String toString() {
-        return simEvent.toString();
-    }
-
-    /**
-     * @return
-     * @see org.cloudbus.cloudsim.core.SimEvent#getType()
-     */
-    public int getType() {
-        return simEvent.getType();
+        return "Event tag = " + tag + " source = " + source + " destination = " + destination + " time = " + time;
     }
 
     /**
-     * @param event
-     * @return
-     * @see org.cloudbus.cloudsim.core.SimEvent#compareTo(org.cloudbus.cloudsim.core.SimEvent)
-     */
-    public int compareTo(SimEvent event) {
-        return simEvent.compareTo(event);
-    }
-
-    /**
-     * @return
-     * @see org.cloudbus.cloudsim.core.SimEvent#getDestination()
+     * @return Id of the entity the event is sent to.
      */
     public int getDestination() {
-        return simEvent.getDestination();
+        return destination;
     }
 
     /**
-     * @return
-     * @see org.cloudbus.cloudsim.core.SimEvent#getSource()
+     * @return Id of the entity that sent the event.
      */
     public int getSource() {
-        return simEvent.getSource();
+        return source;
     }
 
     /**
-     * @return
-     * @see org.cloudbus.cloudsim.core.SimEvent#eventTime()
+     * @return Simulation time at which the event is delivered.
      */
     public double eventTime() {
-        return simEvent.eventTime();
-    }
-
-    /**
-     * @return
-     * @see org.cloudbus.cloudsim.core.SimEvent#endWaitingTime()
-     */
-    public double endWaitingTime() {
-        return simEvent.endWaitingTime();
+        return time;
     }
 
     /**
-     * @return
-     * @see org.cloudbus.cloudsim.core.SimEvent#type()
+     * @return Insertion order of the event, used to order events scheduled for the same time.
      */
-    public int type() {
-        return simEvent.type();
+    long getSerial() {
+        return serial;
     }
 
     /**
-     * @return
-     * @see org.cloudbus.cloudsim.core.SimEvent#scheduledBy()
+     * @return Whether this event is delivered before the other one: earlier time, or same time and sent earlier.
      */
-    public int scheduledBy() {
-        return simEvent.scheduledBy();
+    boolean isBefore(CWSSimEvent other) {
+        return time < other.time || (time == other.time && serial < other.serial);
     }
 
     /**
-     * @return
-     * @see org.cloudbus.cloudsim.core.SimEvent#getTag()
+     * @return Whether the event was cancelled by {@link CloudSimWrapper#cancel(CWSSimEvent)}.
      */
-    public int getTag() {
-        return simEvent.getTag();
-    }
-
-    /**
-     * @return
-     * @see org.cloudbus.cloudsim.core.SimEvent#getData()
-     */
-    public Object getData() {
-        return simEvent.getData();
+    public boolean isCancelled() {
+        return cancelled;
     }
 
-    /**
-     * @return
-     * @see org.cloudbus.cloudsim.core.SimEvent#clone()
-     */
-    @Override
-    public Object clone() {
-        return simEvent.clone();
+    void cancel() {
+        cancelled = true;
     }
 
-    /**
-     * @param s
-     * @see org.cloudbus.cloudsim.core.SimEvent#setSource(int)
-     */
-    public void setSource(int s) {
-        simEvent.setSource(s);
+    public int getTag() {
+        return tag;
     }
 
-    /**
-     * @param d
-     * @see org.cloudbus.cloudsim.core.SimEvent#setDestination(int)
-     */
-    public void setDestination(int d) {
-        simEvent.setDestination(d);
+    public Object getData() {
+        return data;
     }
-
 }
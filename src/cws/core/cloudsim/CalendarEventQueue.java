@@ -0,0 +1,277 @@
+package cws.core.cloudsim;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Calendar queue (R. Brown, "Calendar queues: a fast O(1) priority queue implementation for the simulation event set
+ * problem", CACM 1988). Time is divided into buckets of a fixed width, which map to a circular array of sorted lists
+ * (the days of a year). The first event is searched from the bucket of the last removed event on, so when the width
+ * fits the spacing of the events every operation touches a bucket or two.
+ *
+ * The simulator produces dense timestamps: many events at the same time (zero delay sends, transfers finishing
+ * together) and the rest spread over the near future. Events with the same time go to the same bucket in send order,
+ * so they are appended to the bucket's tail in O(1). The width is estimated from the non-zero gaps between the
+ * earliest events whenever the number of buckets changes, which happens when the queue grows or shrinks by a factor
+ * of two. Buckets are linked lists through {@link CWSSimEvent#next}, so queuing an event allocates nothing.
+ */
+public class CalendarEventQueue implements EventQueue {
+    private static final int MIN_BUCKETS = 16;
+
+    /** Number of gaps the bucket width is estimated from */
+    private static final int SAMPLE_SIZE = 25;
+
+    private static final Comparator<CWSSimEvent> EVENT_ORDER = new Comparator<CWSSimEvent>() {
+        @Override
+        public int compare(CWSSimEvent e1, CWSSimEvent e2) {
+            return e1.isBefore(e2) ? -1 : (e2.isBefore(e1) ? 1 : 0);
+        }
+    };
+
+    private CWSSimEvent[] heads;
+    private CWSSimEvent[] tails;
+    private int mask;
+    private double width = 1.0;
+    private int size;
+
+    /** Bucket number (time / width) to start searching from, no queued event is in an earlier bucket */
+    private long current;
+
+    /** Time of the last removed event */
+    private double lastTime;
+
+    /** The first event, null when it has to be searched */
+    private CWSSimEvent first;
+
+    public CalendarEventQueue() {
+        allocate(MIN_BUCKETS);
+    }
+
+    private void allocate(int numBuckets) {
+        heads = new CWSSimEvent[numBuckets];
+        tails = new CWSSimEvent[numBuckets];
+        mask = numBuckets - 1;
+    }
+
+    private long bucketOf(double time) {
+        return (long) Math.floor(time / width);
+    }
+
+    @Override
+    public void add(CWSSimEvent ev) {
+        long bucket = bucketOf(ev.eventTime());
+        if (bucket < current) {
+            current = bucket;
+        }
+        insert(ev, (int) (bucket & mask));
+        size++;
+        if (first != null && ev.isBefore(first)) {
+            first = ev;
+        }
+        if (size > 2 * heads.length) {
+            resize(2 * heads.length);
+        }
+    }
+
+    private void insert(CWSSimEvent ev, int b) {
+        CWSSimEvent tail = tails[b];
+        ev.next = null;
+        if (tail == null) {
+            heads[b] = ev;
+            tails[b] = ev;
+        } else if (!ev.isBefore(tail)) {
+            tail.next = ev;
+            tails[b] = ev;
+        } else if (ev.isBefore(heads[b])) {
+            ev.next = heads[b];
+            heads[b] = ev;
+        } else {
+            CWSSimEvent prev = heads[b];
+            while (prev.next.isBefore(ev)) {
+                prev = prev.next;
+            }
+            ev.next = prev.next;
+            prev.next = ev;
+        }
+    }
+
+    @Override
+    public CWSSimEvent peek() {
+        if (first == null && size > 0) {
+            first = findFirst();
+        }
+        return first;
+    }
+
+    /**
+     * Walks the buckets of one year from the current one. The head of a bucket is the first event if it belongs to
+     * the walked bucket and not to a later year. If a whole year is empty, the earliest head is the first event.
+     */
+    private CWSSimEvent findFirst() {
+        for (int k = 0; k < heads.length; k++) {
+            long bucket = current + k;
+            CWSSimEvent head = heads[(int) (bucket & mask)];
+            if (head != null && bucketOf(head.eventTime()) == bucket) {
+                return head;
+            }
+        }
+        CWSSimEvent best = null;
+        for (CWSSimEvent head : heads) {
+            if (head != null && (best == null || head.isBefore(best))) {
+                best = head;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public CWSSimEvent poll() {
+        CWSSimEvent ev = peek();
+        if (ev == null) {
+            return null;
+        }
+        // the first event is always the head of its bucket
+        long bucket = bucketOf(ev.eventTime());
+        int b = (int) (bucket & mask);
+        heads[b] = ev.next;
+        if (heads[b] == null) {
+            tails[b] = null;
+        }
+        ev.next = null;
+        size--;
+        current = bucket;
+        lastTime = ev.eventTime();
+        first = null;
+        if (size < heads.length / 2 && heads.length > MIN_BUCKETS) {
+            resize(heads.length / 2);
+        }
+        return ev;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Unlinks the event from the bucket of its time, where it has to be if it is queued.
+     */
+    @Override
+    public boolean remove(CWSSimEvent ev) {
+        int b = (int) (bucketOf(ev.eventTime()) & mask);
+        CWSSimEvent prev = null;
+        CWSSimEvent cur = heads[b];
+        while (cur != null && cur.isBefore(ev)) {
+            prev = cur;
+            cur = cur.next;
+        }
+        if (cur != ev) {
+            return false;
+        }
+        if (prev == null) {
+            heads[b] = ev.next;
+        } else {
+            prev.next = ev.next;
+        }
+        if (tails[b] == ev) {
+            tails[b] = prev;
+        }
+        ev.next = null;
+        size--;
+        if (first == ev) {
+            first = null;
+        }
+        if (size < heads.length / 2 && heads.length > MIN_BUCKETS) {
+            resize(heads.length / 2);
+        }
+        return true;
+    }
+
+    @Override
+    public void removeAll(int src, int tag) {
+        for (int b = 0; b < heads.length; b++) {
+            CWSSimEvent prev = null;
+            CWSSimEvent ev = heads[b];
+            while (ev != null) {
+                CWSSimEvent next = ev.next;
+                if (ev.getSource() == src && ev.getTag() == tag) {
+                    if (prev == null) {
+                        heads[b] = next;
+                    } else {
+                        prev.next = next;
+                    }
+                    ev.next = null;
+                    size--;
+                } else {
+                    prev = ev;
+                }
+                ev = next;
+            }
+            tails[b] = prev;
+        }
+        first = null;
+    }
+
+    /**
+     * Rebuilds the calendar with the given number of buckets and a width estimated from the queued events.
+     */
+    private void resize(int numBuckets) {
+        CWSSimEvent[] events = new CWSSimEvent[size];
+        int n = 0;
+        for (CWSSimEvent head : heads) {
+            for (CWSSimEvent ev = head; ev != null; ev = ev.next) {
+                events[n++] = ev;
+            }
+        }
+        Arrays.sort(events, EVENT_ORDER);
+        width = estimateWidth(events);
+        allocate(numBuckets);
+        current = bucketOf(n > 0 ? events[0].eventTime() : lastTime);
+        for (CWSSimEvent ev : events) {
+            insert(ev, (int) (bucketOf(ev.eventTime()) & mask));
+        }
+        first = null;
+    }
+
+    /**
+     * Brown's estimate is three times the average of the first non-zero gaps between the sorted events, ignoring gaps
+     * larger than twice the average, for about three events per bucket. When events share their times that many are
+     * reached with fewer gaps, down to one gap per bucket: a bucket holding several times is a sorted list, inserts
+     * into it would have to skip the events of the later times. Keeps the current width when all the events have the
+     * same time.
+     */
+    private double estimateWidth(CWSSimEvent[] events) {
+        double[] gaps = new double[SAMPLE_SIZE];
+        int numGaps = 0;
+        // events before the last gap, they have numGaps distinct times
+        int numEvents = 0;
+        double sum = 0.0;
+        for (int i = 1; i < events.length && numGaps < SAMPLE_SIZE; i++) {
+            double gap = events[i].eventTime() - events[i - 1].eventTime();
+            if (gap > 0.0) {
+                gaps[numGaps++] = gap;
+                sum += gap;
+                numEvents = i;
+            }
+        }
+        if (numGaps == 0) {
+            return width;
+        }
+        double average = sum / numGaps;
+        double smallSum = 0.0;
+        int numSmall = 0;
+        for (int i = 0; i < numGaps; i++) {
+            if (gaps[i] <= 2 * average) {
+                smallSum += gaps[i];
+                numSmall++;
+            }
+        }
+        double eventsPerTime = numEvents / (double) numGaps;
+        return Math.max(1.0, 3.0 / eventsPerTime) * smallSum / numSmall;
+    }
+}
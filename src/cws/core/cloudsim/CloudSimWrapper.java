@@ -1,66 +1,303 @@
 package cws.core.cloudsim;
 
-import java.util.Calendar;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 
 import org.cloudbus.cloudsim.Log;
-import org.cloudbus.cloudsim.core.CloudSim;
-import org.cloudbus.cloudsim.core.SimEntity;
-import org.cloudbus.cloudsim.core.predicates.Predicate;
 
+/**
+ * Discrete event simulation kernel. Every instance owns its clock, its event queues and its entities, so independent
+ * simulations can run side by side (e.g. in different threads) as long as each one uses its own instance.
+ *
+ * Event delivery follows the semantics of CloudSim's static kernel: on every tick all entities process the events
+ * delivered to them (in entity registration order), then all the future events with the smallest time are delivered.
+ * Events sent while processing are therefore never seen in the same tick.
+ *
+ * The future event queue is pluggable, see {@link EventQueueType}. All the queues deliver events in the same order.
+ * Events sent for the current time (sendNow and other zero delays) bypass it, see {@link #runClockTick()}.
+ */
 public class CloudSimWrapper {
 
-    public void addEntity(SimEntity entity) {
-        CloudSim.addEntity(entity);
+    /** Entities in registration order, entity's id is its index */
+    private List<CWSSimEntity> entities;
+
+    private Map<String, CWSSimEntity> entitiesByName;
+
+    /** Events not yet delivered, ordered by time and then by send order */
+    private EventQueue future;
+
+    private final EventQueueType queueType;
+
+    /** Not yet delivered events for the current time, in send order */
+    private ArrayDeque<CWSSimEvent> immediate;
+
+    /** Delivered but not yet processed events, one FIFO queue per entity */
+    private List<Queue<CWSSimEvent>> deferred;
+
+    /** Ids of the entities with deferred events, so a tick only visits the entities that have something to do */
+    private BitSet pending;
+
+    private double clock;
+
+    private long nextSerial;
+
+    private boolean running;
+
+    private IdAllocator ids;
+
+    private SimulationMetrics metrics;
+
+    public CloudSimWrapper() {
+        this(EventQueueType.HEAP);
+    }
+
+    public CloudSimWrapper(EventQueueType queueType) {
+        this.queueType = queueType;
+        init();
     }
 
     /**
-     * @see CloudSim#clock()
+     * Registers the entity and assigns it an id. Entities register themselves on construction, so adding an already
+     * registered entity does nothing.
      */
+    public void addEntity(CWSSimEntity entity) {
+        if (entity.getId() == -1) {
+            entity.setId(entities.size());
+            entities.add(entity);
+            entitiesByName.put(entity.getName(), entity);
+            deferred.add(new ArrayDeque<CWSSimEvent>());
+            if (running) {
+                entity.startEntity();
+            }
+        }
+    }
+
+    /**
+     * @return Next id of this simulation for objects of the given kind, see {@link IdAllocator}.
+     */
+    public int nextId(Class<?> kind) {
+        return ids.next(kind);
+    }
+
+    public IdAllocator getIds() {
+        return ids;
+    }
+
+    /**
+     * @return Event counters of this simulation, reset by {@link #init()}.
+     */
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
     public double clock() {
-        return CloudSim.clock();
+        return clock;
+    }
+
+    public EventQueueType getQueueType() {
+        return queueType;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Cancels all not yet delivered events with the given tag sent by the given entity.
+     */
+    public void cancelAll(int src, int tag) {
+        future.removeAll(src, tag);
+        Iterator<CWSSimEvent> it = immediate.iterator();
+        while (it.hasNext()) {
+            CWSSimEvent ev = it.next();
+            if (ev.getSource() == src && ev.getTag() == tag) {
+                it.remove();
+            }
+        }
     }
 
     /**
-     * @see CloudSim#cancelAll(int, Predicate)
+     * Cancels the given event, which is then never processed. A future event is removed from the queue right away, an
+     * event sent for the current time is dropped when its turn comes.
      */
-    public void cancelAll(int src, Predicate p) {
-        CloudSim.cancelAll(src, p);
+    public void cancel(CWSSimEvent ev) {
+        if (ev.isCancelled()) {
+            return;
+        }
+        ev.cancel();
+        if (future.remove(ev)) {
+            metrics.eventCancelled();
+        }
     }
 
     /**
-     * Calls {@link CloudSim#init(int, Calendar, boolean)} with params 1, null, false.
-     * @see CloudSim#init(int, Calendar, boolean)
+     * Resets the simulation: clock, events, entities and ids. Entities created before this call are no longer part of the
+     * simulation.
      */
     public void init() {
-        CloudSim.init(1, null, false);
+        entities = new ArrayList<CWSSimEntity>();
+        entitiesByName = new HashMap<String, CWSSimEntity>();
+        future = queueType.createQueue();
+        immediate = new ArrayDeque<CWSSimEvent>();
+        deferred = new ArrayList<Queue<CWSSimEvent>>();
+        pending = new BitSet();
+        clock = 0.0;
+        nextSerial = 0;
+        running = false;
+        ids = new IdAllocator();
+        metrics = new SimulationMetrics();
     }
 
     /**
-     * @see CloudSim#startSimulation()
+     * Runs the simulation until there are no more events.
+     * @return The time of the last event.
      */
-    public void startSimulation() {
-        CloudSim.startSimulation();
+    public double startSimulation() {
+        long startWallTime = System.nanoTime();
+        running = true;
+        // entities created from here on are started by addEntity()
+        int numEntities = entities.size();
+        for (int i = 0; i < numEntities; i++) {
+            entities.get(i).startEntity();
+        }
+        while (runClockTick()) {
+            // keep going
+        }
+        for (CWSSimEntity entity : entities) {
+            entity.shutdownEntity();
+        }
+        running = false;
+        metrics.simulationFinished(System.nanoTime() - startWallTime);
+        return clock;
     }
 
     /**
-     * @see CloudSim#getEntityId(String)
+     * Lets every entity process its deferred events and then delivers all the earliest future events. Events are only
+     * deferred by delivery, so the entities with events are known when processing starts and are visited in id
+     * order, the events in delivery order. Dispatch allocates nothing, entities get the queued event itself.
+     *
+     * After delivery all the future events are later than the clock, so the events sent for the current time while
+     * processing are exactly the next ones to deliver, in send order. They are kept in a FIFO queue and delivered
+     * from there without going through the future event queue.
+     * @return false when there are no more future events.
      */
-    public int getEntityId(String entityName) {
-        return CloudSim.getEntityId(entityName);
+    private boolean runClockTick() {
+        for (int i = pending.nextSetBit(0); i >= 0; i = pending.nextSetBit(i + 1)) {
+            pending.clear(i);
+            CWSSimEntity entity = entities.get(i);
+            Queue<CWSSimEvent> events = deferred.get(i);
+            CWSSimEvent ev;
+            while ((ev = events.poll()) != null) {
+                if (ev.isCancelled()) {
+                    metrics.eventCancelled();
+                } else {
+                    metrics.eventProcessed(i, ev.getTag());
+                    entity.processEvent(ev);
+                }
+            }
+        }
+
+        if (deliverImmediate()) {
+            return true;
+        }
+        // cancelled events have been removed from the future queue
+        CWSSimEvent first = future.poll();
+        if (first == null) {
+            return false;
+        }
+        deliver(first);
+        while (!future.isEmpty() && future.peek().eventTime() == first.eventTime()) {
+            deliver(future.poll());
+        }
+        return true;
+    }
+
+    /**
+     * Delivers the events sent for the current time.
+     * @return false when there were none or all of them were cancelled.
+     */
+    private boolean deliverImmediate() {
+        boolean delivered = false;
+        CWSSimEvent ev;
+        while ((ev = immediate.poll()) != null) {
+            if (ev.isCancelled()) {
+                metrics.eventCancelled();
+            } else {
+                deliver(ev);
+                delivered = true;
+            }
+        }
+        return delivered;
+    }
+
+    private void deliver(CWSSimEvent ev) {
+        if (ev.eventTime() < clock) {
+            throw new IllegalArgumentException("Past event detected.");
+        }
+        clock = ev.eventTime();
+        int dest = ev.getDestination();
+        if (dest < 0 || dest >= entities.size()) {
+            throw new IllegalArgumentException("Attempt to send to a null entity detected.");
+        }
+        deferred.get(dest).add(ev);
+        pending.set(dest);
     }
 
     /**
-     * @see CloudSim#getEntity(String)
+     * Looks the name up in a hash map kept by addEntity(), so it is cheap, but entities on hot paths should still
+     * resolve the ids they talk to once and keep them (see VM's storage manager).
+     * @return Id of the entity with the given name, or -1 if there is no such entity.
      */
+    public int getEntityId(String entityName) {
+        CWSSimEntity entity = entitiesByName.get(entityName);
+        if (entity == null) {
+            return -1;
+        }
+        return entity.getId();
+    }
+
     public Object getEntityByName(String name) {
-        return CloudSim.getEntity(name);
+        return entitiesByName.get(name);
     }
 
     /**
-     * @see CloudSim#send(int, int, double, int, Object)
+     * @return The entity with the given id.
+     */
+    public CWSSimEntity getEntity(int id) {
+        return entities.get(id);
+    }
+
+    public int getNumEntities() {
+        return entities.size();
+    }
+
+    /**
+     * Schedules an event from src to dest, to be delivered after the given delay.
      */
     public void send(int src, int dest, double delay, int tag, Object data) {
-        CloudSim.send(src, dest, delay, tag, data);
+        schedule(src, dest, delay, tag, data);
+    }
+
+    private CWSSimEvent schedule(int src, int dest, double delay, int tag, Object data) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("Send delay can't be negative.");
+        }
+        double time = clock + delay;
+        CWSSimEvent ev = new CWSSimEvent(time, nextSerial++, src, dest, tag, data);
+        if (time == clock) {
+            immediate.add(ev);
+            metrics.eventScheduledNow();
+        } else {
+            future.add(ev);
+        }
+        metrics.eventScheduled(future.size() + immediate.size());
+        return ev;
     }
 
     /**
@@ -78,20 +315,47 @@ public class CloudSimWrapper {
     }
 
     /**
-     * Calls {@link #send(int, int, double, int, Object)} with myself.getId() as src and dest.
+     * Like {@link #send(int, int, double, int, Object)} with myself.getId() as src and dest.
+     * @return The scheduled event, which can be passed to {@link #cancel(CWSSimEvent)}.
      */
-    public void sendToMyself(CWSSimEntity myslef, double delay, int tag, Object data) {
-        send(myslef.getId(), myslef.getId(), delay, tag, data);
+    public CWSSimEvent sendToMyself(CWSSimEntity myslef, double delay, int tag, Object data) {
+        return schedule(myslef.getId(), myslef.getId(), delay, tag, data);
     }
 
     private double lastTime = 0.0;
 
+    /** Cleared by {@link #disableLogging()}, CloudSim's global Log switch is honored as well */
+    private boolean logEnabled = true;
+
+    /**
+     * @return true when messages passed to log() are printed. Call sites should check it before building expensive
+     *         messages, so that a disabled log costs nothing.
+     */
+    public boolean isLogEnabled() {
+        return logEnabled && !Log.isDisabled();
+    }
+
     public void log(String msg) {
-        Log.printLine((clock() - lastTime) + " (" + clock() + ") " + msg);
-        lastTime = clock();
+        if (!isLogEnabled()) {
+            return;
+        }
+        double now = clock;
+        Log.printLine((now - lastTime) + " (" + now + ") " + msg);
+        lastTime = now;
+    }
+
+    /**
+     * Logs a {@link String#format(String, Object...)} message. The message is only formatted when logging is enabled.
+     */
+    public void log(String format, Object... args) {
+        if (!isLogEnabled()) {
+            return;
+        }
+        log(String.format(format, args));
     }
 
     public void disableLogging() {
+        logEnabled = false;
         Log.disable();
     }
 
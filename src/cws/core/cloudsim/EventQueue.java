@@ -0,0 +1,35 @@
+package cws.core.cloudsim;
+
+/**
+ * Future event queue of a {@link CloudSimWrapper}. Events are ordered by time and then by serial (send order), which
+ * is a total order, so every implementation delivers the events in exactly the same order.
+ */
+public interface EventQueue {
+
+    void add(CWSSimEvent ev);
+
+    /**
+     * @return The first event without removing it, null if the queue is empty.
+     */
+    CWSSimEvent peek();
+
+    /**
+     * @return The first event, removed from the queue, null if the queue is empty.
+     */
+    CWSSimEvent poll();
+
+    int size();
+
+    boolean isEmpty();
+
+    /**
+     * Removes the given event.
+     * @return false if the event is not in the queue.
+     */
+    boolean remove(CWSSimEvent ev);
+
+    /**
+     * Removes all the events with the given source and tag.
+     */
+    void removeAll(int src, int tag);
+}
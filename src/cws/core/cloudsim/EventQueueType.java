@@ -0,0 +1,23 @@
+package cws.core.cloudsim;
+
+/**
+ * Implementations of {@link EventQueue} a {@link CloudSimWrapper} can be created with.
+ */
+public enum EventQueueType {
+    /** Binary heap, O(log n) per operation, see {@link HeapEventQueue} */
+    HEAP {
+        @Override
+        public EventQueue createQueue() {
+            return new HeapEventQueue();
+        }
+    },
+    /** Calendar queue, O(1) per operation on average, see {@link CalendarEventQueue} */
+    CALENDAR {
+        @Override
+        public EventQueue createQueue() {
+            return new CalendarEventQueue();
+        }
+    };
+
+    public abstract EventQueue createQueue();
+}
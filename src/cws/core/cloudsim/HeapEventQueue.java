@@ -0,0 +1,125 @@
+package cws.core.cloudsim;
+
+import java.util.Arrays;
+
+/**
+ * Array based binary min-heap of events. Compares times and serials directly instead of going through a Comparator.
+ * Every event knows its position in the heap, so removing a cancelled event is O(log n) too.
+ */
+public class HeapEventQueue implements EventQueue {
+    private CWSSimEvent[] heap = new CWSSimEvent[64];
+    private int size;
+
+    @Override
+    public void add(CWSSimEvent ev) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, 2 * size);
+        }
+        siftUp(size++, ev);
+    }
+
+    @Override
+    public CWSSimEvent peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    @Override
+    public CWSSimEvent poll() {
+        if (size == 0) {
+            return null;
+        }
+        CWSSimEvent first = heap[0];
+        removeAt(0);
+        return first;
+    }
+
+    @Override
+    public boolean remove(CWSSimEvent ev) {
+        int i = ev.index;
+        if (i < 0 || i >= size || heap[i] != ev) {
+            return false;
+        }
+        removeAt(i);
+        return true;
+    }
+
+    /**
+     * Fills the hole with the last event, which then moves up or down.
+     */
+    private void removeAt(int i) {
+        heap[i].index = -1;
+        CWSSimEvent last = heap[--size];
+        heap[size] = null;
+        if (i < size) {
+            siftDown(i, last);
+            if (heap[i] == last) {
+                siftUp(i, last);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void removeAll(int src, int tag) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            CWSSimEvent ev = heap[i];
+            if (ev.getSource() != src || ev.getTag() != tag) {
+                ev.index = kept;
+                heap[kept++] = ev;
+            } else {
+                ev.index = -1;
+            }
+        }
+        if (kept == size) {
+            return;
+        }
+        Arrays.fill(heap, kept, size, null);
+        size = kept;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i, heap[i]);
+        }
+    }
+
+    private void siftUp(int i, CWSSimEvent ev) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ev.isBefore(heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heap[i].index = i;
+            i = parent;
+        }
+        heap[i] = ev;
+        ev.index = i;
+    }
+
+    private void siftDown(int i, CWSSimEvent ev) {
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && heap[right].isBefore(heap[child])) {
+                child = right;
+            }
+            if (!heap[child].isBefore(ev)) {
+                break;
+            }
+            heap[i] = heap[child];
+            heap[i].index = i;
+            i = child;
+        }
+        heap[i] = ev;
+        ev.index = i;
+    }
+}
@@ -0,0 +1,32 @@
+package cws.core.cloudsim;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out ids for simulation objects. Every kind of object (VMs, jobs, transfers, ...) has its own dense sequence
+ * starting at 0, so ids can be used as array indices and do not depend on what else was simulated in the JVM.
+ */
+public class IdAllocator {
+    private Map<Class<?>, int[]> counters = new HashMap<Class<?>, int[]>();
+
+    /**
+     * @return The next free id for objects of the given kind.
+     */
+    public int next(Class<?> kind) {
+        int[] counter = counters.get(kind);
+        if (counter == null) {
+            counter = new int[1];
+            counters.put(kind, counter);
+        }
+        return counter[0]++;
+    }
+
+    /**
+     * @return The number of ids allocated so far for the given kind, i.e. an upper bound of all its ids.
+     */
+    public int count(Class<?> kind) {
+        int[] counter = counters.get(kind);
+        return counter == null ? 0 : counter[0];
+    }
+}
@@ -0,0 +1,132 @@
+package cws.core.cloudsim;
+
+import java.util.Arrays;
+
+/**
+ * Throughput counters of a {@link CloudSimWrapper}: processed events per tag and per entity, peak number of pending
+ * future events and the wall time spent in {@link CloudSimWrapper#startSimulation()}. Counting is a couple of array
+ * increments per event, so it is always on.
+ */
+public class SimulationMetrics {
+    private long events;
+
+    private long cancelledEvents;
+
+    /** Processed events indexed by tag, grown as needed */
+    private long[] eventsByTag = new long[64];
+
+    /** Processed events indexed by destination entity id, grown as needed */
+    private long[] eventsByEntity = new long[16];
+
+    private int peakQueueDepth;
+
+    private long immediateEvents;
+
+    private long simulationWallTime;
+
+    void eventProcessed(int entityId, int tag) {
+        events++;
+        if (tag >= 0) {
+            if (tag >= eventsByTag.length) {
+                eventsByTag = Arrays.copyOf(eventsByTag, Math.max(tag + 1, 2 * eventsByTag.length));
+            }
+            eventsByTag[tag]++;
+        }
+        if (entityId >= eventsByEntity.length) {
+            eventsByEntity = Arrays.copyOf(eventsByEntity, Math.max(entityId + 1, 2 * eventsByEntity.length));
+        }
+        eventsByEntity[entityId]++;
+    }
+
+    void eventCancelled() {
+        cancelledEvents++;
+    }
+
+    void eventScheduled(int queueDepth) {
+        if (queueDepth > peakQueueDepth) {
+            peakQueueDepth = queueDepth;
+        }
+    }
+
+    void eventScheduledNow() {
+        immediateEvents++;
+    }
+
+    void simulationFinished(long wallTime) {
+        simulationWallTime += wallTime;
+    }
+
+    /**
+     * @return Number of events passed to the entities' processEvent().
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * @return Number of cancelled events dropped without being processed.
+     */
+    public long getCancelledEvents() {
+        return cancelledEvents;
+    }
+
+    public long getEventsByTag(int tag) {
+        return tag >= 0 && tag < eventsByTag.length ? eventsByTag[tag] : 0;
+    }
+
+    /**
+     * @return Tags of all processed events, in ascending order.
+     */
+    public int[] getTags() {
+        int count = 0;
+        for (long n : eventsByTag) {
+            if (n > 0) {
+                count++;
+            }
+        }
+        int[] tags = new int[count];
+        int next = 0;
+        for (int tag = 0; tag < eventsByTag.length; tag++) {
+            if (eventsByTag[tag] > 0) {
+                tags[next++] = tag;
+            }
+        }
+        return tags;
+    }
+
+    public long getEventsByEntity(int entityId) {
+        return entityId >= 0 && entityId < eventsByEntity.length ? eventsByEntity[entityId] : 0;
+    }
+
+    /**
+     * @return The largest number of scheduled but not yet delivered events.
+     */
+    public int getPeakQueueDepth() {
+        return peakQueueDepth;
+    }
+
+    /**
+     * @return Number of events sent for the current time, which were delivered without going through the future
+     *         event queue.
+     */
+    public long getImmediateEvents() {
+        return immediateEvents;
+    }
+
+    /**
+     * @return Wall time of the simulation loop in nanoseconds.
+     */
+    public long getSimulationWallTime() {
+        return simulationWallTime;
+    }
+
+    /**
+     * @return Processed events per second of simulation wall time, 0 when nothing was simulated.
+     */
+    public double getEventsPerSecond() {
+        if (simulationWallTime == 0) {
+            return 0.0;
+        }
+        return events / (simulationWallTime / 1.0e9);
+    }
+}
@@ -0,0 +1,300 @@
+package cws.core.dag;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+
+import cws.core.algorithms.VMType;
+
+/**
+ * Compact binary encoding of a DAG (.bdag), loaded by memory mapping the file. All the names are stored once in a
+ * string table and everything else refers to them by index. Layout, all numbers big endian:
+ *
+ * <pre>
+ * int magic, int version
+ * int numStrings, numStrings * (int length, length UTF-8 bytes)
+ * int numFiles, numFiles * (int name, long size)
+ * int numUses, numUses * (int name, long size)
+ * int numTasks, numTasks * (int id, int transformation, double size)
+ * children: int[numTasks + 1] offsets, int[numEdges] task indices
+ * parents:  int[numTasks + 1] offsets, int[numEdges] task indices
+ * inputs:   int[numTasks + 1] offsets, int[numInputs] use indices
+ * outputs:  int[numTasks + 1] offsets, int[numOutputs] use indices
+ * </pre>
+ *
+ * Tasks, files, and the per task lists are stored in the order of the source DAG, so a loaded DAG is
+ * indistinguishable from the parsed one. Files are the DAG's FILE records, uses are the distinct (name, size) pairs
+ * of the tasks' input and output files. Uses with the size of the file table share its canonical DAGFile. They are
+ * the same for .dag files, but DAX files may give a file a different size in every &lt;uses&gt;.
+ */
+public class BinaryDAGFormat {
+    public static final String EXTENSION = ".bdag";
+
+    /** "CWSB" */
+    private static final int MAGIC = 0x43575342;
+    private static final int VERSION = 1;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private BinaryDAGFormat() {
+    }
+
+    /**
+     * Writes the DAG to the given file in the binary format.
+     */
+    public static void write(DAG dag, File file) {
+        String[] fileNames = dag.getFiles();
+        String[] taskIds = dag.getTasks();
+
+        Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+        for (String name : fileNames) {
+            intern(strings, name);
+        }
+        Map<Task, Integer> taskIndices = new HashMap<Task, Integer>();
+        Task[] tasks = new Task[taskIds.length];
+        for (int i = 0; i < taskIds.length; i++) {
+            tasks[i] = dag.getTaskById(taskIds[i]);
+            taskIndices.put(tasks[i], i);
+            intern(strings, tasks[i].getId());
+            intern(strings, tasks[i].getTransformation());
+        }
+        Map<String, Integer> useIndices = new HashMap<String, Integer>();
+        List<DAGFile> uses = new ArrayList<DAGFile>();
+        for (Task task : tasks) {
+            addUses(task.getInputFiles(), useIndices, uses, strings);
+            addUses(task.getOutputFiles(), useIndices, uses, strings);
+        }
+
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(strings.size());
+            for (String s : strings.keySet()) {
+                byte[] bytes = s.getBytes(UTF8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            out.writeInt(fileNames.length);
+            for (String name : fileNames) {
+                out.writeInt(strings.get(name));
+                out.writeLong(dag.getFileSize(name));
+            }
+
+            out.writeInt(uses.size());
+            for (DAGFile use : uses) {
+                out.writeInt(strings.get(use.getName()));
+                out.writeLong(use.getSize());
+            }
+
+            out.writeInt(tasks.length);
+            for (Task task : tasks) {
+                out.writeInt(strings.get(task.getId()));
+                out.writeInt(strings.get(task.getTransformation()));
+                out.writeDouble(task.getSize());
+            }
+
+            List<List<Integer>> children = new ArrayList<List<Integer>>(tasks.length);
+            List<List<Integer>> parents = new ArrayList<List<Integer>>(tasks.length);
+            List<List<Integer>> inputs = new ArrayList<List<Integer>>(tasks.length);
+            List<List<Integer>> outputs = new ArrayList<List<Integer>>(tasks.length);
+            for (Task task : tasks) {
+                children.add(indicesOf(task.getChildren(), taskIndices));
+                parents.add(indicesOf(task.getParents(), taskIndices));
+                inputs.add(useIndicesOf(task.getInputFiles(), useIndices));
+                outputs.add(useIndicesOf(task.getOutputFiles(), useIndices));
+            }
+            writeCSR(out, children);
+            writeCSR(out, parents);
+            writeCSR(out, inputs);
+            writeCSR(out, outputs);
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to write binary DAG: I/O error", ioe);
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    private static void intern(Map<String, Integer> strings, String s) {
+        if (!strings.containsKey(s)) {
+            strings.put(s, strings.size());
+        }
+    }
+
+    private static List<Integer> indicesOf(List<Task> tasks, Map<Task, Integer> taskIndices) {
+        List<Integer> indices = new ArrayList<Integer>(tasks.size());
+        for (Task task : tasks) {
+            indices.add(taskIndices.get(task));
+        }
+        return indices;
+    }
+
+    private static String useKey(DAGFile file) {
+        return file.getSize() + " " + file.getName();
+    }
+
+    private static void addUses(List<DAGFile> files, Map<String, Integer> useIndices, List<DAGFile> uses,
+            Map<String, Integer> strings) {
+        for (DAGFile file : files) {
+            String key = useKey(file);
+            if (!useIndices.containsKey(key)) {
+                useIndices.put(key, uses.size());
+                uses.add(file);
+                intern(strings, file.getName());
+            }
+        }
+    }
+
+    private static List<Integer> useIndicesOf(List<DAGFile> files, Map<String, Integer> useIndices) {
+        List<Integer> indices = new ArrayList<Integer>(files.size());
+        for (DAGFile file : files) {
+            indices.add(useIndices.get(useKey(file)));
+        }
+        return indices;
+    }
+
+    private static void writeCSR(DataOutputStream out, List<List<Integer>> rows) throws IOException {
+        int offset = 0;
+        out.writeInt(offset);
+        for (List<Integer> row : rows) {
+            offset += row.size();
+            out.writeInt(offset);
+        }
+        for (List<Integer> row : rows) {
+            for (int index : row) {
+                out.writeInt(index);
+            }
+        }
+    }
+
+    /**
+     * Memory maps the given binary DAG file and builds the DAG from it.
+     */
+    public static DAG read(File file) {
+        RandomAccessFile raf = null;
+        MappedByteBuffer buffer;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            FileChannel channel = raf.getChannel();
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to read binary DAG: I/O error", ioe);
+        } finally {
+            IOUtils.closeQuietly(raf);
+        }
+        try {
+            return read(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new RuntimeException("Unable to read binary DAG: truncated file: " + file, e);
+        }
+    }
+
+    private static DAG read(ByteBuffer in) {
+        if (in.remaining() < 8 || in.getInt() != MAGIC) {
+            throw new RuntimeException("Unable to read binary DAG: bad magic number");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new RuntimeException("Unable to read binary DAG: unsupported version " + version);
+        }
+
+        String[] strings = new String[in.getInt()];
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < strings.length; i++) {
+            int length = in.getInt();
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, 2 * scratch.length)];
+            }
+            in.get(scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, UTF8);
+        }
+
+        DAG dag = new DAG();
+        int numFiles = in.getInt();
+        for (int i = 0; i < numFiles; i++) {
+            String name = strings[checkIndex(in.getInt(), strings.length)];
+            dag.addFile(name, in.getLong());
+        }
+        DAGFile[] files = new DAGFile[in.getInt()];
+        for (int i = 0; i < files.length; i++) {
+            DAGFile file = dag.getFile(strings[checkIndex(in.getInt(), strings.length)]);
+            long size = in.getLong();
+            files[i] = file.getSize() == size ? file : new DAGFile(file.getName(), size, file.getId());
+        }
+
+        Task[] tasks = new Task[in.getInt()];
+        for (int i = 0; i < tasks.length; i++) {
+            String id = strings[checkIndex(in.getInt(), strings.length)];
+            String transformation = strings[checkIndex(in.getInt(), strings.length)];
+            tasks[i] = new Task(id, transformation, in.getDouble(), VMType.DEFAULT_VM_TYPE);
+            dag.addTask(tasks[i]);
+        }
+
+        int[] offsets = readOffsets(in, tasks.length);
+        for (int i = 0; i < tasks.length; i++) {
+            List<Task> children = tasks[i].getChildren();
+            for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                children.add(tasks[checkIndex(in.getInt(), tasks.length)]);
+            }
+        }
+        offsets = readOffsets(in, tasks.length);
+        for (int i = 0; i < tasks.length; i++) {
+            List<Task> parents = tasks[i].getParents();
+            for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                parents.add(tasks[checkIndex(in.getInt(), tasks.length)]);
+            }
+        }
+        offsets = readOffsets(in, tasks.length);
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i].addInputFiles(readFiles(in, files, offsets[i + 1] - offsets[i]));
+        }
+        offsets = readOffsets(in, tasks.length);
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i].addOutputFiles(readFiles(in, files, offsets[i + 1] - offsets[i]));
+        }
+        return dag;
+    }
+
+    private static int[] readOffsets(ByteBuffer in, int numTasks) {
+        int[] offsets = new int[numTasks + 1];
+        for (int i = 0; i <= numTasks; i++) {
+            offsets[i] = in.getInt();
+            if (i > 0 && offsets[i] < offsets[i - 1]) {
+                throw new RuntimeException("Unable to read binary DAG: invalid offsets");
+            }
+        }
+        return offsets;
+    }
+
+    private static List<DAGFile> readFiles(ByteBuffer in, DAGFile[] files, int count) {
+        List<DAGFile> list = new ArrayList<DAGFile>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(files[checkIndex(in.getInt(), files.length)]);
+        }
+        return list;
+    }
+
+    private static int checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new RuntimeException("Unable to read binary DAG: invalid index " + index);
+        }
+        return index;
+    }
+}
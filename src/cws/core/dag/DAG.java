@@ -1,5 +1,6 @@
 package cws.core.dag;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
@@ -11,21 +12,57 @@ import cws.core.storage.StorageManager;
  * @author Gideon Juve <juve@usc.edu>
  */
 public class DAG {
-    private HashMap<String, Long> files = new HashMap<String, Long>();
+    /** Canonical file of every name */
+    private HashMap<String, DAGFile> files = new HashMap<String, DAGFile>();
+    /** Files by id */
+    private ArrayList<DAGFile> fileTable = new ArrayList<DAGFile>();
     private HashMap<String, Task> tasks = new HashMap<String, Task>();
+    /** Tasks by index */
+    private ArrayList<Task> taskTable = new ArrayList<Task>();
+    /** Structure view, built on demand and dropped when tasks or edges are added */
+    private IndexedDAG indexed;
 
     public void addTask(Task t) {
         if (tasks.containsKey(t.getId())) {
             throw new RuntimeException("Task already exists: " + t.getId());
         }
+        t.setIndex(taskTable.size());
+        taskTable.add(t);
         tasks.put(t.getId(), t);
+        indexed = null;
     }
 
-    public void addFile(String name, long size) {
+    /**
+     * Adds the file to the file table. Adding a file again with a different size replaces its canonical instance, the
+     * new one keeps the id.
+     * @return The canonical file.
+     */
+    public DAGFile addFile(String name, long size) {
         if (size < 0) {
             throw new RuntimeException("Invalid size for file '" + name + "': " + size);
         }
-        files.put(name, size);
+        DAGFile file = files.get(name);
+        if (file == null) {
+            file = new DAGFile(name, size, fileTable.size());
+            fileTable.add(file);
+            files.put(name, file);
+        } else if (file.getSize() != size) {
+            file = new DAGFile(name, size, file.getId());
+            fileTable.set(file.getId(), file);
+            files.put(name, file);
+        }
+        return file;
+    }
+
+    /**
+     * Adds a canonical file of another DAG, see {@link DAGTemplate}. Files must be added in the order of their ids.
+     */
+    void addFile(DAGFile file) {
+        if (file.getId() != fileTable.size() || files.containsKey(file.getName())) {
+            throw new RuntimeException("Invalid file '" + file.getName() + "' with id " + file.getId());
+        }
+        fileTable.add(file);
+        files.put(file.getName(), file);
     }
 
     public void addEdge(String parent, String child) {
@@ -39,6 +76,7 @@ public class DAG {
         }
         p.getChildren().add(c);
         c.getParents().add(p);
+        indexed = null;
     }
 
     public double getRuntimeSum() {
@@ -46,9 +84,11 @@ public class DAG {
     }
 
     public double getRuntimeSum(StorageManager storageManager) {
+        IndexedDAG graph = getIndexedDAG();
+        double[] transfers = graph.getTransferTimeEstimations(storageManager);
         double sum = 0.0;
-        for (String taskName : getTasks()) {
-            sum += getTaskById(taskName).getPredictedRuntime(storageManager);
+        for (int index : graph.getOrder()) {
+            sum += graph.getTask(index).getPredictedRuntime(transfers[index]);
         }
         return sum;
     }
@@ -56,11 +96,13 @@ public class DAG {
     public void setInputs(String taskId, List<DAGFile> inputs) {
         Task t = getTaskById(taskId);
         t.addInputFiles(inputs);
+        indexed = null;
     }
 
     public void setOutputs(String task, List<DAGFile> outputs) {
         Task t = getTaskById(task);
         t.addOutputFiles(outputs);
+        indexed = null;
     }
 
     public int numTasks() {
@@ -78,11 +120,59 @@ public class DAG {
         return tasks.get(id);
     }
 
+    /**
+     * @return The task with the given index, indices are 0..numTasks()-1 in the order the tasks were added.
+     */
+    public Task getTask(int index) {
+        return taskTable.get(index);
+    }
+
+    /**
+     * Returns the array based view of the tasks and edges of this DAG. It is built on the first call after tasks,
+     * edges or files were added with the methods of the DAG, edges or files added directly to the tasks' lists require
+     * {@link #invalidateIndexedDAG()}.
+     */
+    public IndexedDAG getIndexedDAG() {
+        if (indexed == null) {
+            indexed = new IndexedDAG(this);
+        }
+        return indexed;
+    }
+
+    /**
+     * Sets a view of the current tasks and edges that was built elsewhere, see {@link DAGTemplate}.
+     */
+    void setIndexedDAG(IndexedDAG indexed) {
+        this.indexed = indexed;
+    }
+
+    /**
+     * Drops the view returned by {@link #getIndexedDAG()} after the task lists were changed directly.
+     */
+    public void invalidateIndexedDAG() {
+        indexed = null;
+    }
+
     public long getFileSize(String name) {
-        if (!files.containsKey(name)) {
+        return getFile(name).getSize();
+    }
+
+    /**
+     * @return The canonical file with the given name.
+     */
+    public DAGFile getFile(String name) {
+        DAGFile file = files.get(name);
+        if (file == null) {
             throw new DAGFileNotFoundException(name);
         }
-        return files.get(name);
+        return file;
+    }
+
+    /**
+     * @return The canonical file with the given id, ids are 0..numFiles()-1 in the order the files were added.
+     */
+    public DAGFile getFileById(int id) {
+        return fileTable.get(id);
     }
 
     public String[] getFiles() {
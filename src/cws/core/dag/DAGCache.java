@@ -0,0 +1,151 @@
+package cws.core.dag;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process wide cache of parsed DAGs, so that every DAG file is parsed once no matter how many ensembles, runs or
+ * threads use it. Entries are {@link DAGTemplate}s keyed by the canonical path and the modification time of the file,
+ * a file that changed on disk is parsed again. Callers get new DAG instances, see {@link #getDAG(File, double)}.
+ *
+ * The cache evicts the least recently used templates when their estimated size (see
+ * {@link DAGTemplate#getEstimatedSize()}) exceeds the limit. A template larger than the limit is returned but not kept.
+ * All the methods are thread safe. Files are parsed outside the lock, so two threads missing the same file at the same
+ * time may both parse it.
+ */
+public class DAGCache {
+    /** Limit of the shared instance, 256MB */
+    public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+    private static final DAGCache INSTANCE = new DAGCache(DEFAULT_MAX_SIZE);
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private long maxSize;
+    private long size;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private static class Entry {
+        final long lastModified;
+        final DAGTemplate template;
+        final long size;
+
+        Entry(long lastModified, DAGTemplate template) {
+            this.lastModified = lastModified;
+            this.template = template;
+            this.size = template.getEstimatedSize();
+        }
+    }
+
+    public DAGCache(long maxSize) {
+        setMaxSize(maxSize);
+    }
+
+    /**
+     * @return The cache shared by the whole process.
+     */
+    public static DAGCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return A new instance of the DAG in the given file, with task sizes multiplied by the scaling factor. The file
+     *         is parsed according to its extension, see {@link DAGParser#parse(File)}.
+     */
+    public DAG getDAG(File file, double scalingFactor) {
+        return getTemplate(file).instantiate(scalingFactor);
+    }
+
+    /**
+     * @return The template of the given file, parsed if it is not cached or the file changed since.
+     */
+    public DAGTemplate getTemplate(File file) {
+        String key = getKey(file);
+        long lastModified = file.lastModified();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.lastModified == lastModified) {
+                hits++;
+                return entry.template;
+            }
+            misses++;
+        }
+        Entry entry = new Entry(lastModified, new DAGTemplate(DAGParser.parse(file)));
+        synchronized (this) {
+            Entry old = entries.remove(key);
+            if (old != null) {
+                size -= old.size;
+            }
+            if (entry.size <= maxSize) {
+                entries.put(key, entry);
+                size += entry.size;
+                evict();
+            }
+        }
+        return entry.template;
+    }
+
+    private static String getKey(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.getAbsolutePath();
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (size > maxSize && it.hasNext()) {
+            size -= it.next().getValue().size;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void setMaxSize(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Invalid cache size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        evict();
+    }
+
+    public synchronized long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return Estimated size of the cached templates.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized int numEntries() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Drops all the entries, the counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+}
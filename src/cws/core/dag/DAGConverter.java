@@ -0,0 +1,71 @@
+package cws.core.dag;
+
+import java.io.File;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.cli.PosixParser;
+
+/**
+ * Converts .dag and DAX (.xml, .dax) files to the binary format, see {@link BinaryDAGFormat}. Every input file is
+ * written next to itself (or to the output dir) with its extension replaced by .bdag.
+ *
+ * Usage: DAGConverter [-od DIR] FILE...
+ */
+public class DAGConverter {
+
+    public static Options buildOptions() {
+        Options options = new Options();
+        Option outputdir = new Option("od", "output-dir", true, "Output dir, defaults to the dir of each input file");
+        outputdir.setArgName("DIR");
+        options.addOption(outputdir);
+        return options;
+    }
+
+    public static void main(String[] args) {
+        Options options = buildOptions();
+        CommandLine cmd = null;
+        try {
+            cmd = new PosixParser().parse(options, args);
+        } catch (ParseException exp) {
+            System.err.println(exp.getMessage());
+            new HelpFormatter().printHelp(DAGConverter.class.getName() + " FILE...", options);
+            System.exit(1);
+        }
+        if (cmd.getArgs().length == 0) {
+            new HelpFormatter().printHelp(DAGConverter.class.getName() + " FILE...", options);
+            System.exit(1);
+        }
+        String outputdir = cmd.getOptionValue("output-dir");
+
+        for (String name : cmd.getArgs()) {
+            File input = new File(name);
+            File output = getOutputFile(input, outputdir == null ? null : new File(outputdir));
+            convert(input, output);
+            System.out.println(input + " -> " + output);
+        }
+    }
+
+    /**
+     * Parses the input file according to its extension and writes it in the binary format.
+     */
+    public static void convert(File input, File output) {
+        BinaryDAGFormat.write(DAGParser.parse(input), output);
+    }
+
+    /**
+     * @return The input file name with its extension replaced by .bdag, in the given dir or next to the input.
+     */
+    public static File getOutputFile(File input, File outputdir) {
+        String name = input.getName();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        File dir = outputdir != null ? outputdir : input.getAbsoluteFile().getParentFile();
+        return new File(dir, name + BinaryDAGFormat.EXTENSION);
+    }
+}
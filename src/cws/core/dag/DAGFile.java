@@ -2,14 +2,25 @@ package cws.core.dag;
 
 /**
  * A file consists of its name and size. It's immutable.
+ *
+ * Files of parsed DAGs are canonical: the DAG holds one instance per file name (see {@link DAG#getFile(String)}) and
+ * all the tasks using the file refer to it, so equal files of one DAG are usually the same object.
  */
 public class DAGFile {
     private String name;
     private long size;
 
+    /** Index of the file in its DAG's file table, -1 for files not owned by a DAG */
+    private int id;
+
     public DAGFile(String name, long size) {
+        this(name, size, -1);
+    }
+
+    DAGFile(String name, long size, int id) {
         this.name = name;
         this.size = size;
+        this.id = id;
     }
 
     public String getName() {
@@ -20,12 +31,20 @@ public class DAGFile {
         return size;
     }
 
+    /**
+     * @return Dense index of the file within its DAG, see {@link DAG#getFileById(int)}, or -1 if the file does not
+     *         belong to a DAG. Files of different DAGs may have the same id.
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * File name is globally unique.
      */
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof DAGFile && ((DAGFile) obj).name.equals(name);
+        return obj == this || (obj instanceof DAGFile && ((DAGFile) obj).name.equals(name));
     }
 
     /**
@@ -1,14 +1,15 @@
 package cws.core.dag;
 
-import java.util.HashSet;
 import java.util.LinkedList;
-import java.util.Set;
-
 
 /**
  * This class records information about the execution of a DAG, including the
  * state of all tasks.
  * 
+ * The state is kept in arrays indexed by {@link Task#getIndex()}: a task is
+ * released when its counter of incomplete parents drops to zero, so completing
+ * a task costs O(1) per outgoing edge.
+ * 
  * @author Gideon Juve <juve@usc.edu>
  */
 public class DAGJob {
@@ -18,11 +19,19 @@ public class DAGJob {
     /** The DAG being executed */
     private DAG dag;
 
-    /** Set of tasks that have been released */
-    private Set<Task> releasedTasks;
+    /** Structure of the DAG being executed */
+    private IndexedDAG graph;
+
+    /** Number of parents of each task that are not completed yet */
+    private int[] remainingParents;
+
+    /** Tasks that have been released */
+    private boolean[] releasedTasks;
+    private int numReleasedTasks;
 
-    /** Set of tasks that are finished */
-    private Set<Task> completedTasks;
+    /** Tasks that are finished */
+    private boolean[] completedTasks;
+    private int numCompletedTasks;
 
     /** List of all tasks that are ready but have not been claimed */
     private LinkedList<Task> queue;
@@ -31,17 +40,32 @@ public class DAGJob {
     private int priority;
 
     public DAGJob(DAG dag, int owner) {
-        this.dag = dag;
         this.owner = owner;
+        start(dag);
+    }
+
+    /**
+     * Sets up the execution state of the given DAG from scratch and releases its root tasks.
+     */
+    private void start(DAG dag) {
+        this.dag = dag;
         this.queue = new LinkedList<Task>();
-        this.releasedTasks = new HashSet<Task>();
-        this.completedTasks = new HashSet<Task>();
+        this.graph = dag.getIndexedDAG();
+        int numTasks = graph.numTasks();
+        this.releasedTasks = new boolean[numTasks];
+        this.numReleasedTasks = 0;
+        this.completedTasks = new boolean[numTasks];
+        this.numCompletedTasks = 0;
+        this.remainingParents = new int[numTasks];
+        int[] parentOffsets = graph.getParentOffsets();
+        for (int i = 0; i < numTasks; i++) {
+            remainingParents[i] = parentOffsets[i + 1] - parentOffsets[i];
+        }
 
         // Release all root tasks
-        for (String tid : dag.getTasks()) {
-            Task t = dag.getTaskById(tid);
-            if (t.getParents().size() == 0) {
-                releaseTask(t);
+        for (int index : graph.getOrder()) {
+            if (remainingParents[index] == 0) {
+                releaseTask(index);
             }
         }
     }
@@ -58,8 +82,12 @@ public class DAGJob {
         return dag;
     }
 
+    /**
+     * Replaces the DAG being executed. The execution state belongs to the old DAG's tasks, so it is discarded and the
+     * new DAG starts over with its root tasks released.
+     */
     public void setDAG(DAG dag) {
-        this.dag = dag;
+        start(dag);
     }
 
     public int getPriority() {
@@ -70,44 +98,62 @@ public class DAGJob {
         this.priority = priority;
     }
 
+    /** Return the index of the task, or -1 if it is not a task of this DAG */
+    private int indexOf(Task t) {
+        int index = t.getIndex();
+        if (index < 0 || index >= graph.numTasks() || graph.getTask(index) != t) {
+            return -1;
+        }
+        return index;
+    }
+
     /** Check to see if a task has been released */
     public boolean isReleased(Task t) {
-        return releasedTasks.contains(t);
+        int index = indexOf(t);
+        return index >= 0 && releasedTasks[index];
     }
 
     /** Check to see if a task has been completed */
     public boolean isComplete(Task t) {
-        return completedTasks.contains(t);
+        int index = indexOf(t);
+        return index >= 0 && completedTasks[index];
     }
 
     /** Return true if the workflow is finished */
     public boolean isFinished() {
         // The workflow must be finished if all the tasks that
         // have been released have been completed
-        return releasedTasks.size() == completedTasks.size();
+        return numReleasedTasks == numCompletedTasks;
     }
 
-    private void releaseTask(Task t) {
-        releasedTasks.add(t);
-        queue.add(t);
+    private void releaseTask(int index) {
+        releasedTasks[index] = true;
+        numReleasedTasks++;
+        queue.add(graph.getTask(index));
     }
 
     /** Mark a task as completed */
     public void completeTask(Task t) {
         // Sanity check
-        if (!releasedTasks.contains(t)) {
+        int index = indexOf(t);
+        if (index < 0 || !releasedTasks[index]) {
             throw new RuntimeException("Task has not been released: " + t);
         }
+        if (completedTasks[index]) {
+            return;
+        }
 
         // Add it to the list of completed tasks
-        completedTasks.add(t);
+        completedTasks[index] = true;
+        numCompletedTasks++;
 
         // Release all ready children
-        for (Task c : t.getChildren()) {
-            if (!releasedTasks.contains(c)) {
-                if (completedTasks.containsAll(c.getParents())) {
-                    releaseTask(c);
-                }
+        int[] children = graph.getChildIndices();
+        int end = graph.getChildOffsets()[index + 1];
+        for (int i = graph.getChildOffsets()[index]; i < end; i++) {
+            int c = children[i];
+            if (--remainingParents[c] == 0) {
+                releaseTask(c);
             }
         }
     }
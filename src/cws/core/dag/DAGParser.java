@@ -1,13 +1,10 @@
 package cws.core.dag;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileReader;
 import java.io.IOException;
-
 import java.util.ArrayList;
-import java.util.regex.Pattern;
+import java.util.List;
 
 import javax.xml.stream.Location;
 import javax.xml.stream.StreamFilter;
@@ -50,84 +47,89 @@ public class DAGParser {
      */
     public static DAG parseDAG(File dagfile) {
         DAG dag = new DAG();
-        Pattern split = Pattern.compile("\\s+");
 
-        BufferedReader br = null;
+        DAGTokenizer rec;
         try {
-            br = new BufferedReader(new FileReader(dagfile));
-            for (String line = br.readLine(); line != null; line = br.readLine()) {
-                line = line.trim();
+            rec = DAGTokenizer.open(dagfile);
+        } catch (IOException ioe) {
+            throw new RuntimeException("Unable to read DAG: I/O error", ioe);
+        }
 
-                // Ignore comments
-                if (line.startsWith("#")) {
-                    continue;
-                }
+        while (rec.nextRecord()) {
+            int length = rec.numTokens();
 
-                // Ignore empty lines
-                if (line.length() == 0) {
-                    continue;
+            if (rec.tokenEqualsIgnoreCase(0, "TASK")) {
+                if (length != 4) {
+                    throw new RuntimeException("Invalid TASK record: " + rec.line());
                 }
-
-                // Split record
-                String[] rec = split.split(line);
-                String type = rec[0];
-
-                if ("TASK".equalsIgnoreCase(type)) {
-                    if (rec.length != 4) {
-                        throw new RuntimeException("Invalid TASK record: " + line);
-                    }
-                    String id = rec[1];
-                    String xform = rec[2];
-                    double size = Double.parseDouble(rec[3]);
-                    dag.addTask(new Task(id, xform, size, VMType.DEFAULT_VM_TYPE));
-                } else if ("FILE".equalsIgnoreCase(type)) {
-                    if (rec.length != 3) {
-                        throw new RuntimeException("Invalid FILE record: " + line);
-                    }
-                    String name = rec[1];
-                    long size = Long.parseLong(rec[2]);
-                    dag.addFile(name, size);
-                } else if ("EDGE".equalsIgnoreCase(type)) {
-                    if (rec.length != 3) {
-                        throw new RuntimeException("Invalid EDGE record: " + line);
-                    }
-                    String parent = rec[1];
-                    String child = rec[2];
-                    dag.addEdge(parent, child);
-                } else if ("INPUTS".equalsIgnoreCase(type)) {
-                    if (rec.length < 3) {
-                        throw new RuntimeException("Invalid INPUTS record: " + line);
-                    }
-                    ArrayList<DAGFile> inputs = new ArrayList<DAGFile>(rec.length - 2);
-                    String task = rec[1];
-                    for (int i = 2; i < rec.length; i++) {
-                        DAGFile file = new DAGFile(rec[i], dag.getFileSize(rec[i]));
-                        inputs.add(file);
-                    }
-                    dag.setInputs(task, inputs);
-                } else if ("OUTPUTS".equalsIgnoreCase(type)) {
-                    if (rec.length < 3) {
-                        throw new RuntimeException("Invalid OUTPUTS record: " + line);
-                    }
-                    ArrayList<DAGFile> outputs = new ArrayList<DAGFile>(rec.length - 2);
-                    String task = rec[1];
-                    for (int i = 2; i < rec.length; i++) {
-                        DAGFile file = new DAGFile(rec[i], dag.getFileSize(rec[i]));
-                        outputs.add(file);
-                    }
-                    dag.setOutputs(task, outputs);
-                } else {
-                    throw new RuntimeException("Unable to read DAG: invalid record: " + line);
+                String id = rec.name(1);
+                String xform = rec.name(2);
+                double size = rec.parseDouble(3);
+                dag.addTask(new Task(id, xform, size, VMType.DEFAULT_VM_TYPE));
+            } else if (rec.tokenEqualsIgnoreCase(0, "FILE")) {
+                if (length != 3) {
+                    throw new RuntimeException("Invalid FILE record: " + rec.line());
+                }
+                String name = rec.name(1);
+                long size = rec.parseLong(2);
+                dag.addFile(name, size);
+            } else if (rec.tokenEqualsIgnoreCase(0, "EDGE")) {
+                if (length != 3) {
+                    throw new RuntimeException("Invalid EDGE record: " + rec.line());
+                }
+                String parent = rec.name(1);
+                String child = rec.name(2);
+                dag.addEdge(parent, child);
+            } else if (rec.tokenEqualsIgnoreCase(0, "INPUTS")) {
+                if (length < 3) {
+                    throw new RuntimeException("Invalid INPUTS record: " + rec.line());
+                }
+                dag.setInputs(rec.name(1), getFiles(rec, dag));
+            } else if (rec.tokenEqualsIgnoreCase(0, "OUTPUTS")) {
+                if (length < 3) {
+                    throw new RuntimeException("Invalid OUTPUTS record: " + rec.line());
                 }
+                dag.setOutputs(rec.name(1), getFiles(rec, dag));
+            } else {
+                throw new RuntimeException("Unable to read DAG: invalid record: " + rec.line());
             }
-        } catch (IOException ioe) {
-            throw new RuntimeException("Unable to read DAG: I/O error", ioe);
-        } finally {
-            IOUtils.closeQuietly(br);
         }
         return dag;
     }
 
+    /**
+     * @return Files named by the tokens of an INPUTS or OUTPUTS record, starting with the third one.
+     */
+    private static List<DAGFile> getFiles(DAGTokenizer rec, DAG dag) {
+        ArrayList<DAGFile> list = new ArrayList<DAGFile>(rec.numTokens() - 2);
+        for (int i = 2; i < rec.numTokens(); i++) {
+            list.add(dag.getFile(rec.name(i)));
+        }
+        return list;
+    }
+
+    /**
+     * Loads a DAG converted to the binary format by {@link DAGConverter}, see {@link BinaryDAGFormat}.
+     */
+    public static DAG parseBinaryDAG(File bdagfile) {
+        return BinaryDAGFormat.read(bdagfile);
+    }
+
+    /**
+     * Parses the DAG in the format given by the file's extension: .bdag is binary, .xml and .dax are DAX and anything
+     * else is the text DAG format.
+     */
+    public static DAG parse(File file) {
+        String name = file.getName().toLowerCase();
+        if (name.endsWith(BinaryDAGFormat.EXTENSION)) {
+            return parseBinaryDAG(file);
+        } else if (name.endsWith(".xml") || name.endsWith(".dax")) {
+            return parseDAX(file);
+        } else {
+            return parseDAG(file);
+        }
+    }
+
     /**
      * Parse a DAG from the DAX-like synthetic workflows available here:
      * https://confluence.pegasus.isi.edu/display/pegasus/WorkflowGenerator
@@ -223,9 +225,8 @@ public class DAGParser {
                         long size = Long.parseLong(xmlReader.getAttributeValue(null, "size"));
                         String link = xmlReader.getAttributeValue(null, "link");
 
-                        // Add the file to the dag
-                        dag.addFile(fileName, size);
-                        DAGFile file = new DAGFile(fileName, size);
+                        // Add the file to the dag, every use keeps its own size
+                        DAGFile file = dag.addFile(fileName, size);
 
                         // Determine if the file is an input or an output
                         if ("input".equalsIgnoreCase(link)) {
@@ -1,7 +1,5 @@
 package cws.core.dag;
 
-import java.util.HashMap;
-
 import cws.core.dag.algorithms.CriticalPath;
 import cws.core.dag.algorithms.TopologicalOrder;
 import cws.core.storage.StorageManager;
@@ -13,14 +11,16 @@ public class DAGStats {
 
     public DAGStats(DAG dag, StorageManager storageManager) {
         TopologicalOrder order = new TopologicalOrder(dag);
+        IndexedDAG graph = order.getIndexedDAG();
+        double[] runtimes = graph.getPredictedRuntimes(storageManager);
+        int[] postorder = order.getPostorder();
 
         minCost = 0.0;
         totalRuntime = 0.0;
 
-        HashMap<Task, Double> runtimes = new HashMap<Task, Double>();
-        for (Task t : order) {
-            double runtime = t.getPredictedRuntime(storageManager);
-            runtimes.put(t, runtime);
+        for (int i = postorder.length - 1; i >= 0; i--) {
+            Task t = graph.getTask(postorder[i]);
+            double runtime = runtimes[postorder[i]];
 
             // Compute the minimum cost of running this workflow
             minCost += (runtime / (60 * 60)) * t.getVmType().getPrice();
@@ -28,7 +28,7 @@ public class DAGStats {
         }
 
         // Make sure a plan is feasible given the deadline and available VMs
-        CriticalPath path = new CriticalPath(order, runtimes, storageManager);
+        CriticalPath path = new CriticalPath(order, runtimes);
         criticalPath = path.getCriticalPathLength();
     }
 
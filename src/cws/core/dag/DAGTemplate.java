@@ -0,0 +1,126 @@
+package cws.core.dag;
+
+import java.util.Arrays;
+import java.util.List;
+
+import cws.core.algorithms.VMType;
+
+/**
+ * Immutable snapshot of a parsed DAG that many DAG instances can be created from, e.g. the members of an ensemble that
+ * were drawn from the same file. The template keeps the structure as arrays and shares the names, transformations
+ * and (immutable) files with every instance, so a repeated DAG costs one parse.
+ *
+ * Every call of {@link #instantiate(double)} returns a new DAG with its own tasks. Tasks use identity equality and
+ * hold the per instance state (scaled size, VM type), so instances can be used side by side in one ensemble.
+ * Instances are indistinguishable from the DAG the template was made of: tasks, files and all the lists are added in
+ * the same order.
+ */
+public class DAGTemplate {
+    private final String[] ids;
+    private final String[] transformations;
+    private final double[] sizes;
+    private final VMType[] vmTypes;
+
+    /** Edges and topological order by task index, shared by the views of all the instances */
+    private final IndexedDAG structure;
+
+    private final DAGFile[][] inputFiles;
+    private final DAGFile[][] outputFiles;
+
+    /** Canonical files by id */
+    private final DAGFile[] files;
+
+    /**
+     * Takes a snapshot of the given DAG, later changes of the DAG do not affect the template.
+     */
+    public DAGTemplate(DAG dag) {
+        IndexedDAG graph = dag.getIndexedDAG();
+        int numTasks = graph.numTasks();
+        ids = new String[numTasks];
+        transformations = new String[numTasks];
+        sizes = new double[numTasks];
+        vmTypes = new VMType[numTasks];
+        inputFiles = new DAGFile[numTasks][];
+        outputFiles = new DAGFile[numTasks][];
+        for (int i = 0; i < numTasks; i++) {
+            Task task = graph.getTask(i);
+            ids[i] = task.getId();
+            transformations[i] = task.getTransformation();
+            sizes[i] = task.getSize();
+            vmTypes[i] = task.getVmType();
+            inputFiles[i] = toArray(task.getInputFiles());
+            outputFiles[i] = toArray(task.getOutputFiles());
+        }
+        structure = new IndexedDAG(graph, null);
+
+        files = new DAGFile[dag.numFiles()];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = dag.getFileById(i);
+        }
+    }
+
+    private static DAGFile[] toArray(List<DAGFile> files) {
+        return files.toArray(new DAGFile[files.size()]);
+    }
+
+    public int numTasks() {
+        return ids.length;
+    }
+
+    public int numFiles() {
+        return files.length;
+    }
+
+    /**
+     * @return Rough number of bytes retained by the template, for bounding caches of templates.
+     */
+    public long getEstimatedSize() {
+        long size = 64 * 2 + 4L * (structure.getChildIndices().length + structure.getParentIndices().length)
+                + 4L * 7 * (ids.length + 1);
+        for (int i = 0; i < ids.length; i++) {
+            // id string, array slots and the two file arrays
+            size += 56 + ids[i].length() + 4 * 8 + 2 * 16 + 8L * (inputFiles[i].length + outputFiles[i].length);
+        }
+        for (DAGFile file : files) {
+            // DAGFile and name string
+            size += 32 + 56 + file.getName().length() + 8;
+        }
+        return size;
+    }
+
+    /**
+     * @return A new DAG with the sizes of all the tasks multiplied by the scaling factor, like
+     *         {@link Task#scaleSize(double)}.
+     */
+    public DAG instantiate(double scalingFactor) {
+        DAG dag = new DAG();
+        for (DAGFile file : files) {
+            dag.addFile(file);
+        }
+        Task[] tasks = new Task[ids.length];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new Task(ids[i], transformations[i], sizes[i], vmTypes[i]);
+            if (scalingFactor != 1.0) {
+                tasks[i].scaleSize(scalingFactor);
+            }
+            dag.addTask(tasks[i]);
+        }
+        int[] childOffsets = structure.getChildOffsets();
+        int[] parentOffsets = structure.getParentOffsets();
+        for (int i = 0; i < tasks.length; i++) {
+            addTasks(tasks[i].getChildren(), tasks, structure.getChildIndices(), childOffsets[i], childOffsets[i + 1]);
+            addTasks(tasks[i].getParents(), tasks, structure.getParentIndices(), parentOffsets[i],
+                    parentOffsets[i + 1]);
+            tasks[i].addInputFiles(Arrays.asList(inputFiles[i]));
+            tasks[i].addOutputFiles(Arrays.asList(outputFiles[i]));
+        }
+        dag.setIndexedDAG(new IndexedDAG(structure, tasks));
+        return dag;
+    }
+
+    private static void addTasks(List<Task> list, Task[] tasks, int[] indices, int from, int to) {
+        for (int j = from; j < to; j++) {
+            list.add(tasks[indices[j]]);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package cws.core.dag;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Splits the bytes of a text .dag file into records and whitespace separated tokens in a single pass, without creating
+ * a String per line or per token. Lines are trimmed like {@link String#trim()} and split like the "\\s+" regex, so
+ * records and error messages are the same as with line based parsing.
+ *
+ * Tokens used as names are decoded once per distinct value by {@link #name(int)}, which returns the same String
+ * instance for every occurrence of a name in the file.
+ */
+class DAGTokenizer {
+    /** Same charset as the FileReader of line based parsing, must be ASCII compatible */
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    /** Powers of ten that are exact doubles, see {@link #parseDouble(int)} */
+    private static final double[] POWERS_OF_TEN = new double[23];
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    /** Byte kinds: line ends, separators matched by \\s and token characters */
+    private static final byte TOKEN = 0;
+    private static final byte SPACE = 1;
+    private static final byte END_OF_LINE = 2;
+    private static final byte[] KINDS = new byte[256];
+    static {
+        KINDS[' '] = SPACE;
+        KINDS['\t'] = SPACE;
+        KINDS[0x0B] = SPACE;
+        KINDS['\f'] = SPACE;
+        KINDS['\n'] = END_OF_LINE;
+        KINDS['\r'] = END_OF_LINE;
+    }
+
+    private final byte[] buf;
+    private final int length;
+    private int pos;
+
+    /** Trimmed current line */
+    private int lineStart;
+    private int lineEnd;
+
+    private int numTokens;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int[] hashes = new int[16];
+
+    /** Open addressing hash table of decoded names, slots hold index + 1 into the arrays below */
+    private int[] slots = new int[1024];
+    private int numNames;
+    private int[] nameStarts = new int[512];
+    private int[] nameLengths = new int[512];
+    private int[] nameHashes = new int[512];
+    private String[] names = new String[512];
+
+    DAGTokenizer(byte[] buf, int length) {
+        this.buf = buf;
+        this.length = length;
+    }
+
+    /**
+     * Reads the whole file into memory.
+     */
+    static DAGTokenizer open(File file) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            long size = in.length();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large: " + file);
+            }
+            byte[] buf = new byte[(int) size];
+            in.readFully(buf);
+            return new DAGTokenizer(buf, buf.length);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Moves to the next record, skipping empty and comment lines. Lines are trimmed and split in one pass, the hash
+     * of every token is computed on the way for {@link #name(int)}.
+     * @return false at the end of the input.
+     */
+    boolean nextRecord() {
+        while (pos < length) {
+            int i = pos;
+            // String.trim() removes all the characters up to ' '
+            while (i < length && (buf[i] & 0xff) <= ' ' && KINDS[buf[i] & 0xff] != END_OF_LINE) {
+                i++;
+            }
+            numTokens = 0;
+            if (i < length && buf[i] == '#') {
+                while (i < length && KINDS[buf[i] & 0xff] != END_OF_LINE) {
+                    i++;
+                }
+            }
+            while (i < length) {
+                byte b = buf[i];
+                byte kind = KINDS[b & 0xff];
+                if (kind == END_OF_LINE) {
+                    break;
+                } else if (kind == SPACE) {
+                    i++;
+                } else {
+                    int start = i;
+                    int hash = 0;
+                    do {
+                        hash = 31 * hash + b;
+                        b = ++i < length ? buf[i] : (byte) '\n';
+                    } while (KINDS[b & 0xff] == TOKEN);
+                    addToken(start, i, hash);
+                }
+            }
+            pos = i + 1;
+            trimLastToken();
+            if (numTokens > 0) {
+                lineStart = starts[0];
+                lineEnd = ends[numTokens - 1];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addToken(int start, int end, int hash) {
+        if (numTokens == starts.length) {
+            starts = Arrays.copyOf(starts, 2 * numTokens);
+            ends = Arrays.copyOf(ends, 2 * numTokens);
+            hashes = Arrays.copyOf(hashes, 2 * numTokens);
+        }
+        starts[numTokens] = start;
+        ends[numTokens] = end;
+        hashes[numTokens] = hash;
+        numTokens++;
+    }
+
+    /**
+     * Control characters are token characters for the "\\s+" split, but trim() removes them at the end of the line.
+     */
+    private void trimLastToken() {
+        while (numTokens > 0) {
+            int last = numTokens - 1;
+            int end = ends[last];
+            while (end > starts[last] && (buf[end - 1] & 0xff) <= ' ') {
+                end--;
+            }
+            if (end == ends[last]) {
+                return;
+            } else if (end == starts[last]) {
+                numTokens--;
+            } else {
+                ends[last] = end;
+                int hash = 0;
+                for (int j = starts[last]; j < end; j++) {
+                    hash = 31 * hash + buf[j];
+                }
+                hashes[last] = hash;
+                return;
+            }
+        }
+    }
+
+    int numTokens() {
+        return numTokens;
+    }
+
+    /**
+     * @return The current (trimmed) line, for error messages.
+     */
+    String line() {
+        return new String(buf, lineStart, lineEnd - lineStart, CHARSET);
+    }
+
+    /**
+     * @return The token as a new String.
+     */
+    String token(int i) {
+        return new String(buf, starts[i], ends[i] - starts[i], CHARSET);
+    }
+
+    /**
+     * Like {@link String#equalsIgnoreCase(String)} with the given upper case ASCII keyword.
+     */
+    boolean tokenEqualsIgnoreCase(int i, String keyword) {
+        int start = starts[i];
+        int len = ends[i] - start;
+        for (int j = 0; j < len; j++) {
+            if (buf[start + j] < 0) {
+                // non ASCII characters may still fold to ASCII letters
+                return keyword.equalsIgnoreCase(token(i));
+            }
+        }
+        if (len != keyword.length()) {
+            return false;
+        }
+        for (int j = 0; j < len; j++) {
+            int c = buf[start + j];
+            if (c >= 'a' && c <= 'z') {
+                c -= 'a' - 'A';
+            }
+            if (c != keyword.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The token decoded as a String, the same instance for all equal tokens of the file.
+     */
+    String name(int i) {
+        int start = starts[i];
+        int len = ends[i] - start;
+        int hash = hashes[i];
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        while (slots[slot] != 0) {
+            int n = slots[slot] - 1;
+            if (nameHashes[n] == hash && sameBytes(nameStarts[n], nameLengths[n], start, len)) {
+                return names[n];
+            }
+            slot = (slot + 1) & mask;
+        }
+        String name = new String(buf, start, len, CHARSET);
+        if (numNames == names.length) {
+            nameStarts = Arrays.copyOf(nameStarts, 2 * numNames);
+            nameLengths = Arrays.copyOf(nameLengths, 2 * numNames);
+            nameHashes = Arrays.copyOf(nameHashes, 2 * numNames);
+            names = Arrays.copyOf(names, 2 * numNames);
+        }
+        nameStarts[numNames] = start;
+        nameLengths[numNames] = len;
+        nameHashes[numNames] = hash;
+        names[numNames] = name;
+        numNames++;
+        slots[slot] = numNames;
+        if (2 * numNames > slots.length) {
+            rehash();
+        }
+        return name;
+    }
+
+    private boolean sameBytes(int nameStart, int nameLength, int start, int len) {
+        if (nameLength != len) {
+            return false;
+        }
+        for (int j = 0; j < len; j++) {
+            if (buf[nameStart + j] != buf[start + j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        slots = new int[2 * slots.length];
+        int mask = slots.length - 1;
+        for (int n = 0; n < numNames; n++) {
+            int slot = mix(nameHashes[n]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = n + 1;
+        }
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * Same as {@link Long#parseLong(String)} of the token, plain digit strings are parsed without creating a String.
+     */
+    long parseLong(int i) {
+        int start = starts[i];
+        int len = ends[i] - start;
+        if (len == 0 || len > 18) {
+            return Long.parseLong(token(i));
+        }
+        long value = 0;
+        for (int j = start; j < start + len; j++) {
+            int digit = buf[j] - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.parseLong(token(i));
+            }
+            value = 10 * value + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Same as {@link Double#parseDouble(String)} of the token. Decimals with at most 15 digits are parsed without
+     * creating a String: their digits and the power of ten are exact doubles, so one division rounds correctly.
+     */
+    double parseDouble(int i) {
+        int start = starts[i];
+        int len = ends[i] - start;
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (int j = start; j < start + len; j++) {
+            byte b = buf[j];
+            if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (b >= '0' && b <= '9' && digits < 15) {
+                mantissa = 10 * mantissa + (b - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else {
+                return Double.parseDouble(token(i));
+            }
+        }
+        if (digits == 0) {
+            return Double.parseDouble(token(i));
+        }
+        return fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : (double) mantissa;
+    }
+}
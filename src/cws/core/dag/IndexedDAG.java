@@ -0,0 +1,251 @@
+package cws.core.dag;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import cws.core.storage.StorageManager;
+
+/**
+ * Immutable, array based view of a DAG's structure. Tasks are numbered 0..numTasks()-1 by {@link Task#getIndex()} and
+ * the edges are stored in CSR form: the children of task i are
+ * {@code getChildIndices()[getChildOffsets()[i] .. getChildOffsets()[i + 1] - 1]}, in the order of
+ * {@link Task#getChildren()}, and likewise for parents. This lets graph algorithms work on int arrays instead of hashing
+ * tasks.
+ *
+ * Transfer time estimations of the tasks are memoized per storage configuration, see
+ * {@link #getTransferTimeEstimations(StorageManager)}. They depend on the task files only, so the view is dropped when
+ * files are set with {@link DAG#setInputs(String, List)} or {@link DAG#setOutputs(String, List)}.
+ *
+ * The view also holds a topological order and the level of every task, computed once when the view is built. DAGs
+ * instantiated from a {@link DAGTemplate} share all the arrays of the template's view.
+ *
+ * The view is built by {@link DAG#getIndexedDAG()} and is replaced when tasks or edges are added to the DAG. The
+ * returned arrays must not be modified. Task sizes are not part of the structure and are read from the tasks on every
+ * call of {@link #getSizes()} and {@link #getPredictedRuntimes(StorageManager)}, so scaling tasks needs no rebuild.
+ */
+public class IndexedDAG {
+    private final Task[] tasks;
+
+    /** Task indices in the order of {@link DAG#getTasks()} */
+    private final int[] order;
+
+    private final int[] childOffsets;
+    private final int[] childIndices;
+    private final int[] parentOffsets;
+    private final int[] parentIndices;
+
+    /** Task indices in DFS postorder, i.e. reverse topological order */
+    private final int[] postorder;
+
+    /** Level of every task: 0 for roots, otherwise 1 + the maximum level of its parents */
+    private final int[] levels;
+    private final int numLevels;
+
+    /** Transfer time estimations by task index, keyed by {@link StorageManager#getTransferEstimationKey()} */
+    private final ConcurrentHashMap<Object, double[]> transferEstimations;
+
+    IndexedDAG(DAG dag) {
+        tasks = new Task[dag.numTasks()];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = dag.getTask(i);
+        }
+        String[] ids = dag.getTasks();
+        order = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            order[i] = dag.getTaskById(ids[i]).getIndex();
+        }
+
+        childOffsets = new int[tasks.length + 1];
+        parentOffsets = new int[tasks.length + 1];
+        for (int i = 0; i < tasks.length; i++) {
+            childOffsets[i + 1] = childOffsets[i] + tasks[i].getChildren().size();
+            parentOffsets[i + 1] = parentOffsets[i] + tasks[i].getParents().size();
+        }
+        childIndices = new int[childOffsets[tasks.length]];
+        parentIndices = new int[parentOffsets[tasks.length]];
+        for (int i = 0; i < tasks.length; i++) {
+            fill(tasks[i].getChildren(), childIndices, childOffsets[i]);
+            fill(tasks[i].getParents(), parentIndices, parentOffsets[i]);
+        }
+
+        postorder = computePostorder();
+        levels = new int[tasks.length];
+        numLevels = computeLevels();
+        transferEstimations = new ConcurrentHashMap<Object, double[]>();
+    }
+
+    /**
+     * Creates a view of the same structure for other tasks with the same indices.
+     */
+    IndexedDAG(IndexedDAG structure, Task[] tasks) {
+        this.tasks = tasks;
+        this.order = structure.order;
+        this.childOffsets = structure.childOffsets;
+        this.childIndices = structure.childIndices;
+        this.parentOffsets = structure.parentOffsets;
+        this.parentIndices = structure.parentIndices;
+        this.postorder = structure.postorder;
+        this.levels = structure.levels;
+        this.numLevels = structure.numLevels;
+        this.transferEstimations = structure.transferEstimations;
+    }
+
+    private void fill(List<Task> related, int[] indices, int offset) {
+        for (Task task : related) {
+            int index = task.getIndex();
+            if (index < 0 || index >= tasks.length || tasks[index] != task) {
+                throw new RuntimeException("Task " + task.getId() + " does not belong to the DAG");
+            }
+            indices[offset++] = index;
+        }
+    }
+
+    /**
+     * Depth first search from the tasks in {@link #getOrder()}, visiting children in list order. Uses an explicit
+     * stack, so deep DAGs can not overflow the thread's stack, but visits the tasks exactly like the recursive search.
+     */
+    private int[] computePostorder() {
+        int n = order.length;
+        int[] result = new int[n];
+        int size = 0;
+        boolean[] marked = new boolean[n];
+        int[] stack = new int[n];
+        int[] next = new int[n];
+        for (int root : order) {
+            if (marked[root]) {
+                continue;
+            }
+            marked[root] = true;
+            int top = 0;
+            stack[0] = root;
+            next[0] = childOffsets[root];
+            while (top >= 0) {
+                int task = stack[top];
+                if (next[top] < childOffsets[task + 1]) {
+                    int child = childIndices[next[top]++];
+                    if (!marked[child]) {
+                        marked[child] = true;
+                        top++;
+                        stack[top] = child;
+                        next[top] = childOffsets[child];
+                    }
+                } else {
+                    result[size++] = task;
+                    top--;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fills the levels in topological order.
+     * @return Number of levels.
+     */
+    private int computeLevels() {
+        int count = 0;
+        for (int i = postorder.length - 1; i >= 0; i--) {
+            int task = postorder[i];
+            int level = 0;
+            for (int j = parentOffsets[task]; j < parentOffsets[task + 1]; j++) {
+                level = Math.max(level, levels[parentIndices[j]] + 1);
+            }
+            levels[task] = level;
+            count = Math.max(count, level + 1);
+        }
+        return count;
+    }
+
+    public int numTasks() {
+        return order.length;
+    }
+
+    public Task getTask(int index) {
+        return tasks[index];
+    }
+
+    /**
+     * @return Task indices in the same order as {@link DAG#getTasks()}.
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    public int[] getChildOffsets() {
+        return childOffsets;
+    }
+
+    public int[] getChildIndices() {
+        return childIndices;
+    }
+
+    public int[] getParentOffsets() {
+        return parentOffsets;
+    }
+
+    public int[] getParentIndices() {
+        return parentIndices;
+    }
+
+    /**
+     * @return Task indices in postorder, i.e. the reverse topological order.
+     */
+    public int[] getPostorder() {
+        return postorder;
+    }
+
+    /**
+     * @return Levels of the tasks by index, roots have level 0 and every other task has 1 + the maximum level of its
+     *         parents.
+     */
+    public int[] getLevels() {
+        return levels;
+    }
+
+    public int getNumLevels() {
+        return numLevels;
+    }
+
+    /**
+     * @return Current sizes of the tasks, by index.
+     */
+    public double[] getSizes() {
+        double[] sizes = new double[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            sizes[i] = tasks[i].getSize();
+        }
+        return sizes;
+    }
+
+    /**
+     * @return {@link Task#getPredictedRuntime(StorageManager)} of the tasks, by index.
+     */
+    public double[] getPredictedRuntimes(StorageManager storageManager) {
+        double[] transfers = getTransferTimeEstimations(storageManager);
+        double[] runtimes = new double[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            runtimes[i] = tasks[i].getPredictedRuntime(transfers[i]);
+        }
+        return runtimes;
+    }
+
+    /**
+     * Returns {@link StorageManager#getTransferTimeEstimation(Task)} of the tasks by index. The array is computed once
+     * per {@link StorageManager#getTransferEstimationKey()} and shared, it must not be modified. Managers without a key
+     * get a new array on every call.
+     */
+    public double[] getTransferTimeEstimations(StorageManager storageManager) {
+        Object key = storageManager.getTransferEstimationKey();
+        double[] estimations = key == null ? null : transferEstimations.get(key);
+        if (estimations == null) {
+            estimations = new double[tasks.length];
+            for (int i = 0; i < tasks.length; i++) {
+                estimations[i] = storageManager.getTransferTimeEstimation(tasks[i]);
+            }
+            if (key != null) {
+                transferEstimations.putIfAbsent(key, estimations);
+            }
+        }
+        return estimations;
+    }
+}
@@ -34,6 +34,9 @@ public class Task {
     /** VMType that this task runs on */
     private VMType vmType;
 
+    /** Position of the task in its DAG, see {@link IndexedDAG}, -1 until it is added to one */
+    private int index = -1;
+
     public Task(String id, String transformation, double size, VMType vmType) {
         this.id = id;
         this.transformation = transformation;
@@ -78,7 +81,15 @@ public class Task {
      * @return task's predicted runtime as a double
      */
     public double getPredictedRuntime(StorageManager storageManager) {
-        return getSize() / vmType.getMips() + storageManager.getTransferTimeEstimation(this);
+        return getPredictedRuntime(storageManager.getTransferTimeEstimation(this));
+    }
+
+    /**
+     * Same as {@link #getPredictedRuntime(StorageManager)} with the transfer estimation computed before, e.g. by
+     * {@link IndexedDAG#getTransferTimeEstimations(StorageManager)}.
+     */
+    public double getPredictedRuntime(double transferTimeEstimation) {
+        return getSize() / vmType.getMips() + transferTimeEstimation;
     }
 
     public void scaleSize(double scalingFactor) {
@@ -101,6 +112,14 @@ public class Task {
         return id;
     }
 
+    public int getIndex() {
+        return index;
+    }
+
+    void setIndex(int index) {
+        this.index = index;
+    }
+
     public List<Task> getParents() {
         return parents;
     }
@@ -1,8 +1,8 @@
 package cws.core.dag.algorithms;
 
-import java.util.HashMap;
 import java.util.Map;
 
+import cws.core.dag.IndexedDAG;
 import cws.core.dag.Task;
 import cws.core.storage.StorageManager;
 
@@ -12,41 +12,59 @@ import cws.core.storage.StorageManager;
  * @author malawski
  */
 public class CriticalPath {
-    private Map<Task, Double> eft;
+    private IndexedDAG graph;
+    /** Earliest finish times by task index */
+    private double[] eft;
     private Double length = null;
 
     public CriticalPath(TopologicalOrder order, StorageManager storageManager) {
-        this(order, null, storageManager);
+        this(order, order.getIndexedDAG().getPredictedRuntimes(storageManager));
     }
 
     public CriticalPath(TopologicalOrder order, Map<Task, Double> runtimes, StorageManager storageManager) {
-        this.eft = new HashMap<Task, Double>();
+        this(order, runtimes == null ? order.getIndexedDAG().getPredictedRuntimes(storageManager) : toArray(
+                order.getIndexedDAG(), runtimes));
+    }
 
-        if (runtimes == null) {
-            runtimes = new HashMap<Task, Double>();
-            for (Task task : order) {
-                runtimes.put(task, task.getPredictedRuntime(storageManager));
-            }
-        }
+    /**
+     * @param runtimes Runtimes by task index
+     */
+    public CriticalPath(TopologicalOrder order, double[] runtimes) {
+        this.graph = order.getIndexedDAG();
+        int[] postorder = order.getPostorder();
+        int[] offsets = graph.getChildOffsets();
+        int[] children = graph.getChildIndices();
 
         // Initially the finish time is whatever the runtime is
-        for (Task task : order) {
-            eft.put(task, runtimes.get(task));
-        }
+        eft = runtimes.clone();
 
         // Now we adjust the values in the topological order
-        for (Task task : order) {
-            for (Task child : task.getChildren()) {
-                eft.put(child, Math.max(eft.get(child), eft.get(task) + runtimes.get(child)));
+        for (int i = postorder.length - 1; i >= 0; i--) {
+            int task = postorder[i];
+            for (int j = offsets[task]; j < offsets[task + 1]; j++) {
+                int child = children[j];
+                eft[child] = Math.max(eft[child], eft[task] + runtimes[child]);
             }
         }
     }
 
+    private static double[] toArray(IndexedDAG graph, Map<Task, Double> runtimes) {
+        double[] array = new double[graph.numTasks()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = runtimes.get(graph.getTask(i));
+        }
+        return array;
+    }
+
     /**
      * @return Earliest finish time of task
      */
     public double getEarliestFinishTime(Task task) {
-        return eft.get(task);
+        int index = task.getIndex();
+        if (index < 0 || index >= eft.length || graph.getTask(index) != task) {
+            throw new RuntimeException("Task not in DAG: " + task.getId());
+        }
+        return eft[index];
     }
 
     /**
@@ -55,8 +73,7 @@ public class CriticalPath {
     public double getCriticalPathLength() {
         if (length == null) { // Cache
             double len = 0.0;
-            for (Task task : eft.keySet()) {
-                double eft = getEarliestFinishTime(task);
+            for (double eft : this.eft) {
                 if (eft > len)
                     len = eft;
             }
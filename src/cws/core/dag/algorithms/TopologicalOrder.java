@@ -1,13 +1,11 @@
 package cws.core.dag.algorithms;
 
-import java.util.Deque;
-import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Set;
+import java.util.NoSuchElementException;
 
-import cws.core.dag.Task;
 import cws.core.dag.DAG;
+import cws.core.dag.IndexedDAG;
+import cws.core.dag.Task;
 
 /**
  * Compute topological order of a DAG.
@@ -16,42 +14,87 @@ import cws.core.dag.DAG;
  * Reverse postorder: Put the vertex on a stack after the recursive calls.
  * See: http://algs4.cs.princeton.edu/42directed/
  * 
+ * The search is done once per DAG structure by {@link IndexedDAG}, so creating an order is cheap. See
+ * {@link #getPostorder()} and {@link #getLevels()}.
+ * 
  * @author malawski
  * 
  */
 public class TopologicalOrder implements Iterable<Task> {
-    private Set<Task> marked = new HashSet<Task>();
-    private Deque<Task> postorder = new LinkedList<Task>();
+    private final IndexedDAG graph;
+    private final int[] postorder;
 
     public TopologicalOrder(DAG dag) {
-        for (String taskName : dag.getTasks()) {
-            Task task = dag.getTaskById(taskName);
-            if (!marked.contains(task))
-                dfs(task);
-        }
-        marked = null;
+        graph = dag.getIndexedDAG();
+        postorder = graph.getPostorder();
     }
 
-    private void dfs(Task task) {
-        marked.add(task);
-        for (Task child : task.getChildren()) {
-            if (!marked.contains(child))
-                dfs(child);
-        }
-        postorder.add(task);
+    /**
+     * @return The structure of the DAG the order was computed for.
+     */
+    public IndexedDAG getIndexedDAG() {
+        return graph;
+    }
+
+    /**
+     * @return Task indices in postorder, i.e. the reverse topological order. Must not be modified.
+     */
+    public int[] getPostorder() {
+        return postorder;
+    }
+
+    /**
+     * @return Levels of the tasks by index, see {@link IndexedDAG#getLevels()}. Must not be modified.
+     */
+    public int[] getLevels() {
+        return graph.getLevels();
+    }
+
+    public int getNumLevels() {
+        return graph.getNumLevels();
     }
 
     public Iterable<Task> reverse() {
         return new Iterable<Task>() {
             @Override
             public Iterator<Task> iterator() {
-                return postorder.iterator();
+                return new TaskIterator(0, 1);
             }
         };
     }
 
     @Override
     public Iterator<Task> iterator() {
-        return postorder.descendingIterator();
+        return new TaskIterator(postorder.length - 1, -1);
+    }
+
+    private class TaskIterator implements Iterator<Task> {
+        private int next;
+        private final int step;
+
+        TaskIterator(int first, int step) {
+            this.next = first;
+            this.step = step;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0 && next < postorder.length;
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Task task = graph.getTask(postorder[next]);
+            next += step;
+            return task;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
     }
 }
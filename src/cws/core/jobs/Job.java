@@ -11,8 +11,6 @@ import cws.core.dag.Task;
  * @author Gideon Juve <juve@usc.edu>
  */
 public class Job {
-    private static int next_id = 0;
-
     /** Job states */
     public static enum State {
         QUEUED, IDLE, RUNNING, TERMINATED
@@ -57,7 +55,7 @@ public class Job {
     private Result result;
 
     public Job(CloudSimWrapper cloudsim) {
-        this.id = next_id++;
+        this.id = cloudsim.nextId(Job.class);
         this.releaseTime = cloudsim.clock();
         this.state = State.QUEUED;
         this.result = Result.NONE;
@@ -8,8 +8,11 @@ import cws.core.cloudsim.CloudSimWrapper;
 
 public class SimpleQueueBasedProvisioner extends AbstractProvisioner implements Provisioner {
 
-    public SimpleQueueBasedProvisioner(CloudSimWrapper cloudsim) {
+    private VMFactory vmFactory;
+
+    public SimpleQueueBasedProvisioner(VMFactory vmFactory, CloudSimWrapper cloudsim) {
         super(cloudsim);
+        this.vmFactory = vmFactory;
     }
 
     @Override
@@ -18,7 +21,9 @@ public class SimpleQueueBasedProvisioner extends AbstractProvisioner implements
         // use the queued (released) jobs from the workflow engine
         int queueLength = engine.getQueueLength();
 
-        getCloudSim().log(" Provisioner: queue length: " + queueLength);
+        if (getCloudSim().isLogEnabled()) {
+            getCloudSim().log(" Provisioner: queue length: " + queueLength);
+        }
 
         // check the deadline and budget constraints
         double budget = engine.getBudget();
@@ -34,9 +39,11 @@ public class SimpleQueueBasedProvisioner extends AbstractProvisioner implements
         // add one VM if queue not empty
         if (queueLength > 0) {
             VMStaticParams vmStaticParams = VMStaticParams.getDefaults();
-            VM vm = VMFactory.createVM(vmStaticParams, getCloudSim());
+            VM vm = vmFactory.createVM(vmStaticParams, getCloudSim());
 
-            getCloudSim().log(" Starting VM: " + vm.getId());
+            if (getCloudSim().isLogEnabled()) {
+                getCloudSim().log(" Starting VM: " + vm.getId());
+            }
             getCloudSim().send(engine.getId(), cloud.getId(), 0.0, WorkflowEvent.VM_LAUNCH, vm);
         } else { // terminate free VMs
             Set<VM> freeVMs = engine.getFreeVMs();
@@ -44,7 +51,9 @@ public class SimpleQueueBasedProvisioner extends AbstractProvisioner implements
             while (vmIt.hasNext()) {
                 VM vm = vmIt.next();
                 vmIt.remove();
-                getCloudSim().log(" Terminating VM: " + vm.getId());
+                if (getCloudSim().isLogEnabled()) {
+                    getCloudSim().log(" Terminating VM: " + vm.getId());
+                }
                 getCloudSim().send(engine.getId(), cloud.getId(), 0.0, WorkflowEvent.VM_TERMINATE, vm);
             }
         }
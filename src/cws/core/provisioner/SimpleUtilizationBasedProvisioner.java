@@ -41,7 +41,9 @@ public class SimpleUtilizationBasedProvisioner extends AbstractProvisioner imple
         double time = getCloudSim().clock();
         double cost = engine.getCost();
 
-        getCloudSim().log(" Provisioner: Budget consumed " + cost);
+        if (getCloudSim().isLogEnabled()) {
+            getCloudSim().log(" Provisioner: Budget consumed " + cost);
+        }
 
         // assuming all VMs are homogeneous
         double vmPrice = 0;
@@ -75,8 +77,10 @@ public class SimpleUtilizationBasedProvisioner extends AbstractProvisioner imple
 
         int numVMsCompleting = completingVMs.size();
 
-        getCloudSim().log(" Provisioner: number of instances : " + numVMsRunning);
-        getCloudSim().log(" Provisioner: number of instances completing: " + numVMsCompleting);
+        if (getCloudSim().isLogEnabled()) {
+            getCloudSim().log(" Provisioner: number of instances : " + numVMsRunning);
+            getCloudSim().log(" Provisioner: number of instances completing: " + numVMsCompleting);
+        }
 
         // if we are close to the budget
         if (budget - cost < vmPrice * numVMsCompleting || time > deadline) {
@@ -89,7 +93,9 @@ public class SimpleUtilizationBasedProvisioner extends AbstractProvisioner imple
             if (time > deadline)
                 numToTerminate = numVMsRunning;
 
-            getCloudSim().log(" Provisioner: number of instances to terminate: " + numToTerminate);
+            if (getCloudSim().isLogEnabled()) {
+                getCloudSim().log(" Provisioner: number of instances to terminate: " + numToTerminate);
+            }
 
             // set of vms scheduled for termination
             Set<VM> toTerminate = new HashSet<VM>();
@@ -139,7 +145,9 @@ public class SimpleUtilizationBasedProvisioner extends AbstractProvisioner imple
         double numBusyVMs = engine.getBusyVMs().size();
         double utilization = numBusyVMs / (numFreeVMS + numBusyVMs);
 
-        getCloudSim().log(" Provisioner: utilization: " + utilization);
+        if (getCloudSim().isLogEnabled()) {
+            getCloudSim().log(" Provisioner: utilization: " + utilization);
+        }
 
         // if we are close to constraints we should not provision new vms
         boolean finishing_phase = budget - cost <= vmPrice * numVMsRunning || time > deadline;
@@ -156,7 +164,9 @@ public class SimpleUtilizationBasedProvisioner extends AbstractProvisioner imple
             VMStaticParams vmStaticParams = VMStaticParams.getDefaults();
             VM vm = new VM(vmStaticParams, getCloudSim());
 
-            getCloudSim().log(" Starting VM: " + vm.getId());
+            if (getCloudSim().isLogEnabled()) {
+                getCloudSim().log(" Starting VM: " + vm.getId());
+            }
             getCloudSim().send(engine.getId(), cloud.getId(), 0.0, WorkflowEvent.VM_LAUNCH, vm);
 
         } else if (!finishing_phase && utilization < LOWER_THRESHOLD) {
@@ -215,7 +225,9 @@ public class SimpleUtilizationBasedProvisioner extends AbstractProvisioner imple
             if (secondsRemaining < PROVISIONER_INTERVAL + DEPROVISIONING_DELAY_ESTIMATE) {
                 vmIt.remove();
                 removed.add(vm);
-                getCloudSim().log(" Terminating VM: " + vm.getId());
+                if (getCloudSim().isLogEnabled()) {
+                    getCloudSim().log(" Terminating VM: " + vm.getId());
+                }
                 getCloudSim().send(engine.getId(), cloud.getId(), 0.0, WorkflowEvent.VM_TERMINATE, vm);
             }
         }
@@ -13,6 +13,9 @@ import cws.core.jobs.IdentityRuntimeDistribution;
 import cws.core.jobs.RuntimeDistribution;
 import cws.core.jobs.UniformRuntimeDistribution;
 
+/**
+ * Creates VMs with the provisioning delays, runtime variance and failure model of a single simulation.
+ */
 public class VMFactory {
     private static final double DEFAULT_RUNTIME_VARIANCE = 0.0;
     public static final double DEFAULT_PROVISIONING_DELAY = 0.0;
@@ -27,52 +30,52 @@ public class VMFactory {
         }
     }
 
-    private static ContinuousDistribution provisioningDelayDistribution = new ZeroDistribution();
-    private static ContinuousDistribution deprovisioningDelayDistribution = new ZeroDistribution();
-    private static RuntimeDistribution runtimeDistribution = new IdentityRuntimeDistribution();
-    private static FailureModel failureModel = new FailureModel(0, 0.0);
-    private static double runtimeVariance;
-    private static double delay;
-    private static double failureRate;
-    private static long cacheSize;
-
-    public static ContinuousDistribution getProvisioningDelayDistribution() {
-        return VMFactory.provisioningDelayDistribution;
+    private ContinuousDistribution provisioningDelayDistribution = new ZeroDistribution();
+    private ContinuousDistribution deprovisioningDelayDistribution = new ZeroDistribution();
+    private RuntimeDistribution runtimeDistribution = new IdentityRuntimeDistribution();
+    private FailureModel failureModel = new FailureModel(0, 0.0);
+    private double runtimeVariance;
+    private double delay;
+    private double failureRate;
+    private long cacheSize;
+
+    public ContinuousDistribution getProvisioningDelayDistribution() {
+        return provisioningDelayDistribution;
     }
 
-    public static void setProvisioningDelayDistribution(ContinuousDistribution distribution) {
-        VMFactory.provisioningDelayDistribution = distribution;
+    public void setProvisioningDelayDistribution(ContinuousDistribution distribution) {
+        this.provisioningDelayDistribution = distribution;
     }
 
-    public static ContinuousDistribution getDeprovisioningDelayDistribution() {
-        return VMFactory.deprovisioningDelayDistribution;
+    public ContinuousDistribution getDeprovisioningDelayDistribution() {
+        return deprovisioningDelayDistribution;
     }
 
-    public static void setDeprovisioningDelayDistribution(ContinuousDistribution deprovisioningDelayDistribution) {
-        VMFactory.deprovisioningDelayDistribution = deprovisioningDelayDistribution;
+    public void setDeprovisioningDelayDistribution(ContinuousDistribution deprovisioningDelayDistribution) {
+        this.deprovisioningDelayDistribution = deprovisioningDelayDistribution;
     }
 
-    public static void setRuntimeDistribution(RuntimeDistribution runtimeDistribution) {
-        VMFactory.runtimeDistribution = runtimeDistribution;
+    public void setRuntimeDistribution(RuntimeDistribution runtimeDistribution) {
+        this.runtimeDistribution = runtimeDistribution;
     }
 
-    public static RuntimeDistribution getRuntimeDistribution() {
+    public RuntimeDistribution getRuntimeDistribution() {
         return runtimeDistribution;
     }
 
-    public static FailureModel getFailureModel() {
+    public FailureModel getFailureModel() {
         return failureModel;
     }
 
-    public static void setFailureModel(FailureModel failureModel) {
-        VMFactory.failureModel = failureModel;
+    public void setFailureModel(FailureModel failureModel) {
+        this.failureModel = failureModel;
     }
 
     /**
      * @param cloudSimWrapper - initialized CloudSimWrapper instance. It needs to be inited, because we're creting
      *            storage manager here.
      */
-    public static VM createVM(VMStaticParams vmStaticParams, CloudSimWrapper cloudSimWrapper) {
+    public VM createVM(VMStaticParams vmStaticParams, CloudSimWrapper cloudSimWrapper) {
         // TODO(_mequrel_): change to IoC in the future
         VM vm = new VM(vmStaticParams, cloudSimWrapper);
         vm.setCacheSize(cacheSize);
@@ -103,39 +106,45 @@ public class VMFactory {
         options.addOption(failureRate);
     }
 
-    public static void readCliOptions(CommandLine args, long seed) {
-        runtimeVariance = Double.parseDouble(args.getOptionValue("runtime-variance", DEFAULT_RUNTIME_VARIANCE + ""));
-        delay = Double.parseDouble(args.getOptionValue("delay", DEFAULT_PROVISIONING_DELAY + ""));
-        failureRate = Double.parseDouble(args.getOptionValue("failure-rate", DEFAULT_FAILURE_RATE + ""));
-        cacheSize = Long.parseLong(args.getOptionValue("cache-size", DEFAULT_CACHE_SIZE + ""));
-
-        System.out.printf("runtimeVariance = %f\n", runtimeVariance);
-        System.out.printf("delay = %f\n", delay);
-        System.out.printf("failureRate = %f\n", failureRate);
-        System.out.printf("cacheSize = %d\n", cacheSize);
-
-        if (runtimeVariance > 0.0) {
-            VMFactory.setRuntimeDistribution(new UniformRuntimeDistribution(seed, runtimeVariance));
+    /**
+     * Creates a factory configured from the command line. Random distributions are seeded with the given seed, so
+     * factories read with the same arguments and seed produce the same VMs.
+     */
+    public static VMFactory readCliOptions(CommandLine args, long seed) {
+        VMFactory factory = new VMFactory();
+        factory.runtimeVariance = Double.parseDouble(args.getOptionValue("runtime-variance", DEFAULT_RUNTIME_VARIANCE
+                + ""));
+        factory.delay = Double.parseDouble(args.getOptionValue("delay", DEFAULT_PROVISIONING_DELAY + ""));
+        factory.failureRate = Double.parseDouble(args.getOptionValue("failure-rate", DEFAULT_FAILURE_RATE + ""));
+        factory.cacheSize = Long.parseLong(args.getOptionValue("cache-size", DEFAULT_CACHE_SIZE + ""));
+
+        if (factory.runtimeVariance > 0.0) {
+            factory.setRuntimeDistribution(new UniformRuntimeDistribution(seed, factory.runtimeVariance));
         }
 
-        if (delay > 0.0) {
-            VMFactory.setProvisioningDelayDistribution(new ConstantDistribution(delay));
+        if (factory.delay > 0.0) {
+            factory.setProvisioningDelayDistribution(new ConstantDistribution(factory.delay));
         }
 
-        if (failureRate > 0.0) {
-            VMFactory.setFailureModel(new FailureModel(seed, failureRate));
+        if (factory.failureRate > 0.0) {
+            factory.setFailureModel(new FailureModel(seed, factory.failureRate));
         }
+        return factory;
     }
 
-    public static double getRuntimeVariance() {
+    public double getRuntimeVariance() {
         return runtimeVariance;
     }
 
-    public static double getDelay() {
+    public double getDelay() {
         return delay;
     }
 
-    public static double getFailureRate() {
+    public double getFailureRate() {
         return failureRate;
     }
+
+    public long getCacheSize() {
+        return cacheSize;
+    }
 }
@@ -78,7 +78,9 @@ public class DAGDynamicScheduler implements Scheduler {
 
     private void sendJobToVM(WorkflowEngine engine, VM vm, Job job) {
         cloudsim.send(engine.getId(), vm.getId(), 0.0, WorkflowEvent.JOB_SUBMIT, job);
-        cloudsim.log("Submitting job " + job.getTask().getId() + " to VM " + job.getVM().getId());
+        if (cloudsim.isLogEnabled()) {
+            cloudsim.log("Submitting job " + job.getTask().getId() + " to VM " + job.getVM().getId());
+        }
     }
 
     private boolean canBeScheduled(Queue<Job> jobs, Set<VM> freeVMs) {
@@ -7,8 +7,8 @@ import java.util.Set;
 import cws.core.VM;
 import cws.core.WorkflowEngine;
 import cws.core.cloudsim.CloudSimWrapper;
-import cws.core.dag.DAG;
 import cws.core.dag.DAGJob;
+import cws.core.dag.IndexedDAG;
 import cws.core.dag.Task;
 import cws.core.jobs.Job;
 
@@ -120,7 +120,9 @@ public class WorkflowAwareEnsembleScheduler extends EnsembleDynamicScheduler {
 
         double costEstimate = estimateCost(dj, engine);
         double budgetRemaining = estimateBudgetRemaining(engine);
-        getCloudSim().log(" Cost estimate: " + costEstimate + " Budget remaining: " + budgetRemaining);
+        if (getCloudSim().isLogEnabled()) {
+            getCloudSim().log(" Cost estimate: " + costEstimate + " Budget remaining: " + budgetRemaining);
+        }
         return costEstimate < budgetRemaining;
     }
 
@@ -171,9 +173,10 @@ public class WorkflowAwareEnsembleScheduler extends EnsembleDynamicScheduler {
         // we add this for safety in order not to underestimate our budget
         double safetyMargin = 0.1;
 
-        getCloudSim().log(
-                " Budget for new VMs: " + rn + " Budget on running VMs: " + rc
-                        + " Remaining budget of admitted workflows: " + ra);
+        if (getCloudSim().isLogEnabled()) {
+            getCloudSim().log(" Budget for new VMs: " + rn + " Budget on running VMs: " + rc
+                    + " Remaining budget of admitted workflows: " + ra);
+        }
 
         return rn + rc - ra - safetyMargin;
     }
@@ -187,11 +190,12 @@ public class WorkflowAwareEnsembleScheduler extends EnsembleDynamicScheduler {
      */
     private double computeRemainingCost(DAGJob admittedDJ, WorkflowEngine engine) {
         double cost = 0.0;
-        DAG dag = admittedDJ.getDAG();
-        for (String taskName : dag.getTasks()) {
-            Task task = dag.getTaskById(taskName);
+        IndexedDAG graph = admittedDJ.getDAG().getIndexedDAG();
+        double[] transfers = graph.getTransferTimeEstimations(storageManager);
+        for (int index : graph.getOrder()) {
+            Task task = graph.getTask(index);
             if (!admittedDJ.isComplete(task))
-                cost += task.getPredictedRuntime(storageManager) * getVmPrice(engine);
+                cost += task.getPredictedRuntime(transfers[index]) * getVmPrice(engine);
         }
         return cost / 3600.0;
     }
@@ -1,7 +1,5 @@
 package cws.core.storage;
 
-import org.cloudbus.cloudsim.core.SimEntity;
-import org.cloudbus.cloudsim.core.SimEvent;
 
 import cws.core.jobs.Job;
 import cws.core.WorkflowEvent;
@@ -36,6 +34,16 @@ public abstract class StorageManager extends CWSSimEntity implements WorkflowEve
      */
     public abstract double getTransferTimeEstimation(Task task);
 
+    /**
+     * Identifies the estimations of {@link #getTransferTimeEstimation(Task)}: managers with equal keys give the same
+     * estimation for every task. DAGs memoize the estimations of their tasks under this key, see
+     * {@link cws.core.dag.IndexedDAG#getTransferTimeEstimations(StorageManager)}. The default null disables
+     * memoization.
+     */
+    public Object getTransferEstimationKey() {
+        return null;
+    }
+
     /**
      * Called just before a VM starts a job. You should get here job's input files to the VM.
      * @param job - the job that owns the task that is going to start
@@ -54,25 +62,19 @@ public abstract class StorageManager extends CWSSimEntity implements WorkflowEve
     }
 
     /**
-     * @see SimEntity#processEvent(SimEvent)
+     * @see CWSSimEntity#processEvent(CWSSimEvent)
      */
     @Override
     public void processEvent(CWSSimEvent ev) {
         switch (ev.getTag()) {
         case WorkflowEvent.STORAGE_BEFORE_TASK_START:
             Job job = (Job) ev.getData();
-            for (DAGFile file : job.getTask().getInputFiles()) {
-                statistics.addBytesToRead(file.getSize());
-            }
-            statistics.addTotalFilesToRead(job.getTask().getInputFiles().size());
+            addInputsToRead(job);
             onBeforeTaskStart(job);
             break;
         case WorkflowEvent.STORAGE_AFTER_TASK_COMPLETED:
             Job jobAfter = (Job) ev.getData();
-            for (DAGFile file : jobAfter.getTask().getOutputFiles()) {
-                statistics.addBytesToWrite(file.getSize());
-            }
-            statistics.addTotalFilesToWrite(jobAfter.getTask().getOutputFiles().size());
+            addOutputsToWrite(jobAfter);
             onAfterTaskCompleted(jobAfter);
             break;
         default:
@@ -81,6 +83,26 @@ public abstract class StorageManager extends CWSSimEntity implements WorkflowEve
         }
     }
 
+    /**
+     * Adds the job's input files to the files to read.
+     */
+    protected void addInputsToRead(Job job) {
+        for (DAGFile file : job.getTask().getInputFiles()) {
+            statistics.addBytesToRead(file.getSize());
+        }
+        statistics.addTotalFilesToRead(job.getTask().getInputFiles().size());
+    }
+
+    /**
+     * Adds the job's output files to the files to write.
+     */
+    protected void addOutputsToWrite(Job job) {
+        for (DAGFile file : job.getTask().getOutputFiles()) {
+            statistics.addBytesToWrite(file.getSize());
+        }
+        statistics.addTotalFilesToWrite(job.getTask().getOutputFiles().size());
+    }
+
     /**
      * Notifies parent VM that all input transfers have completed and thus the job can be started.
      * 
@@ -100,7 +122,7 @@ public abstract class StorageManager extends CWSSimEntity implements WorkflowEve
     }
 
     /**
-     * Called on unknown event occurred in {@link #processEvent(SimEvent)}
+     * Called on unknown event occurred in {@link #processEvent(CWSSimEvent)}
      * @param ev - the unknown event which occurred.
      */
     protected void onUnknownSimEvent(CWSSimEvent ev) {
@@ -108,7 +130,7 @@ public abstract class StorageManager extends CWSSimEntity implements WorkflowEve
     }
 
     /**
-     * @see SimEntity#startEntity()
+     * @see CWSSimEntity#startEntity()
      */
     @Override
     public void startEntity() {
@@ -116,7 +138,7 @@ public abstract class StorageManager extends CWSSimEntity implements WorkflowEve
     }
 
     /**
-     * @see SimEntity#shutdownEntity()
+     * @see CWSSimEntity#shutdownEntity()
      */
     @Override
     public void shutdownEntity() {
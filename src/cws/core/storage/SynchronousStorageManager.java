@@ -0,0 +1,19 @@
+package cws.core.storage;
+
+import cws.core.jobs.Job;
+
+/**
+ * Storage manager that transfers files in no simulated time. VMs call it directly instead of sending
+ * STORAGE_BEFORE_TASK_START and STORAGE_AFTER_TASK_COMPLETED and waiting for the replies.
+ */
+public interface SynchronousStorageManager {
+    /**
+     * Handles the job's input files at once, like STORAGE_BEFORE_TASK_START but without the reply.
+     */
+    void transferInputs(Job job);
+
+    /**
+     * Handles the job's output files at once, like STORAGE_AFTER_TASK_COMPLETED but without the reply.
+     */
+    void transferOutputs(Job job);
+}
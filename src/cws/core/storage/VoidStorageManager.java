@@ -8,19 +8,37 @@ import cws.core.jobs.Job;
 /**
  * Void storage manager that behaves as if the file transfers were indefinitely short. Using this manager effectively
  * means that transfers aren't taken into account.
+ *
+ * It is a {@link SynchronousStorageManager}, so VMs normally skip its events and call {@link #transferInputs(Job)}
+ * and {@link #transferOutputs(Job)}, which update the same statistics.
  */
-public class VoidStorageManager extends StorageManager {
+public class VoidStorageManager extends StorageManager implements SynchronousStorageManager {
     public VoidStorageManager(CloudSimWrapper cloudsim) {
         super(cloudsim);
     }
 
+    @Override
+    public void transferInputs(Job job) {
+        addInputsToRead(job);
+        readInputs(job);
+    }
+
+    @Override
+    public void transferOutputs(Job job) {
+        addOutputsToWrite(job);
+    }
+
     @Override
     public void onBeforeTaskStart(Job job) {
+        readInputs(job);
+        notifyThatBeforeTransfersCompleted(job);
+    }
+
+    private void readInputs(Job job) {
         for (DAGFile file : job.getTask().getInputFiles()) {
             statistics.addActualBytesRead(file.getSize());
         }
         statistics.addActualFilesRead(job.getTask().getInputFiles().size());
-        notifyThatBeforeTransfersCompleted(job);
     }
 
     @Override
@@ -32,4 +50,9 @@ public class VoidStorageManager extends StorageManager {
     public double getTransferTimeEstimation(Task task) {
         return 0.0; // instant transfer
     }
+
+    @Override
+    public Object getTransferEstimationKey() {
+        return "void";
+    }
 }
@@ -2,6 +2,7 @@ package cws.core.storage.global;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -17,7 +18,11 @@ import cws.core.storage.cache.VMCacheManager;
 /**
  * Manager which stores files on a global storage. This should loosely resemble Amazon's S3 storage.<br>
  * 
- * GlobalStorageManager uses {@link VMCacheManager} for caching.
+ * GlobalStorageManager uses {@link VMCacheManager} for caching.<br>
+ * 
+ * Transfers are simulated either in chunks (one progress event per {@link GlobalStorageParams#getChunkTransferTime()})
+ * or, with {@link GlobalStorageParams#isAnalyticTransfers()}, with a single completion event per transfer which is
+ * rescheduled whenever congestion changes the transfer speed.
  * 
  * TODO(bryk): randomize parameters under some distribution
  */
@@ -103,9 +108,10 @@ public class GlobalStorageManager extends StorageManager {
         for (DAGFile file : files) {
             GlobalStorageTransfer write = new GlobalStorageTransfer(job, file);
             jobTransfers.add(write);
-            String logMsg = String.format("Global %s transfer started: %s, size: %s", transferType, write.getFile()
-                    .getName(), write.getFile().getSize());
-            getCloudsim().log(logMsg);
+            if (getCloudsim().isLogEnabled()) {
+                getCloudsim().log("Global %s transfer started: %s, size: %s", transferType, file.getName(),
+                        file.getSize());
+            }
             getCloudsim().send(getId(), getId(), params.getLatency(), progressEvent, write);
         }
     }
@@ -145,11 +151,23 @@ public class GlobalStorageManager extends StorageManager {
      */
     private boolean onTransferFinished(GlobalStorageTransfer transfer, Map<Job, List<GlobalStorageTransfer>> transfers,
             String transferType) {
-        String logMsg = String.format("Global %s transfer finished: %s, bytes transferred: %d, duration: %f",
-                transferType, transfer.getFile().getName(), transfer.getFile().getSize(), transfer.getDuration());
-        getCloudsim().log(logMsg);
+        if (transfer.isStarted()) {
+            // account an analytic transfer up to its completion
+            transfer.updateSpeed(getCloudsim().clock(), transfer.getSpeed());
+        }
+        if (getCloudsim().isLogEnabled()) {
+            getCloudsim().log("Global %s transfer finished: %s, bytes transferred: %d, duration: %f", transferType,
+                    transfer.getFile().getName(), transfer.getFile().getSize(), transfer.getDuration());
+        }
         List<GlobalStorageTransfer> jobTransfers = transfers.get(transfer.getJob());
-        jobTransfers.remove(transfer);
+        // transfers of the same job are equal(), but analytic mode needs exactly this one gone
+        Iterator<GlobalStorageTransfer> it = jobTransfers.iterator();
+        while (it.hasNext()) {
+            if (it.next() == transfer) {
+                it.remove();
+                break;
+            }
+        }
         if (jobTransfers.isEmpty()) {
             transfers.remove(transfer.getJob());
             return true;
@@ -181,7 +199,10 @@ public class GlobalStorageManager extends StorageManager {
 
     /** Called on GLOBAL_STORAGE_WRITE_PROGRESS event. */
     private void onWriteProgress(GlobalStorageTransfer write) {
-        if (write.isCompleted()) {
+        if (params.isAnalyticTransfers()) {
+            write.updateSpeed(getCloudsim().clock(), congestedParams.getWriteSpeed());
+            scheduleCompletion(write, WorkflowEvent.GLOBAL_STORAGE_WRITE_FINISHED);
+        } else if (write.isCompleted()) {
             getCloudsim().sendNow(getId(), getId(), WorkflowEvent.GLOBAL_STORAGE_WRITE_FINISHED, write);
         } else {
             progressTransfer(write, WorkflowEvent.GLOBAL_STORAGE_WRITE_PROGRESS, congestedParams.getWriteSpeed());
@@ -190,7 +211,10 @@ public class GlobalStorageManager extends StorageManager {
 
     /** Called on GLOBAL_STORAGE_READ_FINISHED event */
     private void onReadProgress(GlobalStorageTransfer read) {
-        if (read.isCompleted()) {
+        if (params.isAnalyticTransfers()) {
+            read.updateSpeed(getCloudsim().clock(), congestedParams.getReadSpeed());
+            scheduleCompletion(read, WorkflowEvent.GLOBAL_STORAGE_READ_FINISHED);
+        } else if (read.isCompleted()) {
             getCloudsim().sendNow(getId(), getId(), WorkflowEvent.GLOBAL_STORAGE_READ_FINISHED, read);
         } else {
             progressTransfer(read, WorkflowEvent.GLOBAL_STORAGE_READ_PROGRESS, congestedParams.getReadSpeed());
@@ -220,6 +244,36 @@ public class GlobalStorageManager extends StorageManager {
         getCloudsim().sendToMyself(this, time, progressEvent, transfer);
     }
 
+    /**
+     * Schedules the completion of an analytic transfer at its current speed, cancelling the previously scheduled one.
+     */
+    private void scheduleCompletion(GlobalStorageTransfer transfer, int finishedEvent) {
+        if (transfer.getCompletion() != null) {
+            getCloudsim().cancel(transfer.getCompletion());
+        }
+        double delay = transfer.getRemainingBytesToTransfer() / transfer.getSpeed();
+        transfer.setCompletion(getCloudsim().sendToMyself(this, delay, finishedEvent, transfer));
+    }
+
+    /**
+     * Moves started analytic transfers to the new speed and reschedules their completions, unless the speed change is
+     * within {@link GlobalStorageParams#getSpeedChangeTolerance()}.
+     */
+    private void rescheduleTransfers(Map<Job, List<GlobalStorageTransfer>> transfers, double speed, int finishedEvent) {
+        double now = getCloudsim().clock();
+        double tolerance = params.getSpeedChangeTolerance();
+        for (List<GlobalStorageTransfer> jobTransfers : transfers.values()) {
+            for (GlobalStorageTransfer transfer : jobTransfers) {
+                // transfers completing right now are left alone
+                if (transfer.isStarted() && transfer.getCompletion().eventTime() > now
+                        && Math.abs(speed - transfer.getSpeed()) > tolerance * transfer.getSpeed()) {
+                    transfer.updateSpeed(now, speed);
+                    scheduleCompletion(transfer, finishedEvent);
+                }
+            }
+        }
+    }
+
     /**
      * Trivial transfer estimation based o read and write speeds. This seems good enough, but we might change the
      * implementation in the future
@@ -240,11 +294,21 @@ public class GlobalStorageManager extends StorageManager {
         return time;
     }
 
+    /**
+     * Estimations only depend on the speeds and the latency.
+     */
+    @Override
+    public Object getTransferEstimationKey() {
+        return "global " + params.getReadSpeed() + " " + params.getWriteSpeed() + " " + params.getLatency();
+    }
+
     /**
      * Simulates congestion.
      * Updates read and write speeds based on numbers of currently active transfer.
      */
     private void updateSpeedCongestion() {
+        double oldWriteSpeed = congestedParams.getWriteSpeed();
+        double oldReadSpeed = congestedParams.getReadSpeed();
         double writeSpeed = params.getWriteSpeed();
         if (congestedParams.getNumWrites() > 0) {
             writeSpeed = ((double) params.getNumReplicas() * params.getWriteSpeed()) / congestedParams.getNumWrites();
@@ -262,6 +326,14 @@ public class GlobalStorageManager extends StorageManager {
             }
         }
         congestedParams.setReadSpeed(readSpeed);
+
+        // every started transfer has already been checked against an unchanged speed
+        if (params.isAnalyticTransfers() && writeSpeed != oldWriteSpeed) {
+            rescheduleTransfers(writes, writeSpeed, WorkflowEvent.GLOBAL_STORAGE_WRITE_FINISHED);
+        }
+        if (params.isAnalyticTransfers() && readSpeed != oldReadSpeed) {
+            rescheduleTransfers(reads, readSpeed, WorkflowEvent.GLOBAL_STORAGE_READ_FINISHED);
+        }
     }
 
     public GlobalStorageParams getParams() {
@@ -20,6 +20,10 @@ public class GlobalStorageParams {
 
     private static final double DEFAULT_CHUNK_TRANSFER_TIME = 1;
 
+    private static final String DEFAULT_ANALYTIC_TRANSFERS = "false";
+
+    private static final double DEFAULT_SPEED_CHANGE_TOLERANCE = 0.0;
+
     /** Average read speed of the storage */
     private double readSpeed;
 
@@ -38,6 +42,18 @@ public class GlobalStorageParams {
      */
     private double chunkTransferTime = DEFAULT_CHUNK_TRANSFER_TIME;
 
+    /**
+     * Whether transfers are simulated analytically, i.e. with one completion event per transfer which is rescheduled
+     * when congestion changes the speed, instead of one progress event per chunk.
+     */
+    private boolean analyticTransfers = false;
+
+    /**
+     * Relative speed change below which analytic transfers keep their old speed and completion time. 0 reschedules on
+     * every change, which gives the exact fluid model; bigger values save events at the cost of accuracy.
+     */
+    private double speedChangeTolerance = DEFAULT_SPEED_CHANGE_TOLERANCE;
+
     public static void buildCliOptions(Options options) {
         Option storageManagerRead = new Option(null, "storage-manager-read", true,
                 "(required for storage-manager=global) Global storage manager read speed");
@@ -62,6 +78,17 @@ public class GlobalStorageParams {
                 "Global storage file chunk transfer time, defaults to " + DEFAULT_CHUNK_TRANSFER_TIME);
         ctt.setArgName("TIME");
         options.addOption(ctt);
+
+        Option analytic = new Option(null, "analytic-transfers", true,
+                "Whether global storage transfers are simulated with one completion event each instead of chunks, "
+                        + "defaults to " + DEFAULT_ANALYTIC_TRANSFERS);
+        analytic.setArgName("BOOL");
+        options.addOption(analytic);
+
+        Option tolerance = new Option(null, "speed-change-tolerance", true,
+                "Relative speed change ignored by analytic transfers, defaults to " + DEFAULT_SPEED_CHANGE_TOLERANCE);
+        tolerance.setArgName("TOLERANCE");
+        options.addOption(tolerance);
     }
 
     public void storeProperties(Properties properties) {
@@ -70,6 +97,8 @@ public class GlobalStorageParams {
         properties.setProperty("chunkTransferTime", "" + chunkTransferTime);
         properties.setProperty("latency", "" + latency);
         properties.setProperty("numReplicas", "" + numReplicas);
+        properties.setProperty("analyticTransfers", "" + analyticTransfers);
+        properties.setProperty("speedChangeTolerance", "" + speedChangeTolerance);
     }
 
     public static GlobalStorageParams readProperties(Properties properties) {
@@ -80,6 +109,10 @@ public class GlobalStorageParams {
                 DEFAULT_CHUNK_TRANSFER_TIME + ""));
         params.latency = Double.valueOf(properties.getProperty("latency", DEFAULT_LATENCY + ""));
         params.numReplicas = Integer.valueOf(properties.getProperty("numReplicas", DEFAULT_NUM_REPLICAS + ""));
+        params.analyticTransfers = Boolean.valueOf(properties.getProperty("analyticTransfers",
+                DEFAULT_ANALYTIC_TRANSFERS));
+        params.speedChangeTolerance = Double.valueOf(properties.getProperty("speedChangeTolerance",
+                DEFAULT_SPEED_CHANGE_TOLERANCE + ""));
         return params;
     }
 
@@ -95,12 +128,18 @@ public class GlobalStorageParams {
                 DEFAULT_CHUNK_TRANSFER_TIME + ""));
         params.latency = Double.parseDouble(args.getOptionValue("latency", DEFAULT_LATENCY + ""));
         params.numReplicas = Integer.parseInt(args.getOptionValue("num-replicas", DEFAULT_NUM_REPLICAS + ""));
+        params.analyticTransfers = Boolean.valueOf(args.getOptionValue("analytic-transfers",
+                DEFAULT_ANALYTIC_TRANSFERS));
+        params.setSpeedChangeTolerance(Double.parseDouble(args.getOptionValue("speed-change-tolerance",
+                DEFAULT_SPEED_CHANGE_TOLERANCE + "")));
 
         System.out.printf("storage-manager-read = %f\n", params.readSpeed);
         System.out.printf("storage-manager-write = %f\n", params.writeSpeed);
         System.out.printf("latency = %f\n", params.latency);
         System.out.printf("chunk-transfer-time = %f\n", params.chunkTransferTime);
         System.out.printf("num-replicas = %d\n", params.numReplicas);
+        System.out.printf("analytic-transfers = %b\n", params.analyticTransfers);
+        System.out.printf("speed-change-tolerance = %f\n", params.speedChangeTolerance);
         return params;
     }
 
@@ -170,4 +209,23 @@ public class GlobalStorageParams {
         }
         this.numReplicas = numReplicas;
     }
+
+    public boolean isAnalyticTransfers() {
+        return analyticTransfers;
+    }
+
+    public void setAnalyticTransfers(boolean analyticTransfers) {
+        this.analyticTransfers = analyticTransfers;
+    }
+
+    public double getSpeedChangeTolerance() {
+        return speedChangeTolerance;
+    }
+
+    public void setSpeedChangeTolerance(double speedChangeTolerance) {
+        if (speedChangeTolerance < 0) {
+            throw new IllegalCWSArgumentException("Speed change tolerance must be >= 0");
+        }
+        this.speedChangeTolerance = speedChangeTolerance;
+    }
 }
@@ -1,5 +1,6 @@
 package cws.core.storage.global;
 
+import cws.core.cloudsim.CWSSimEvent;
 import cws.core.dag.DAGFile;
 import cws.core.jobs.Job;
 
@@ -20,6 +21,15 @@ public class GlobalStorageTransfer {
      */
     private double duration;
 
+    /** Speed of an analytic transfer, 0 until it has started */
+    private double speed;
+
+    /** Simulation time up to which bytesTransferred and duration of an analytic transfer are accounted for */
+    private double lastUpdateTime;
+
+    /** Pending completion event of an analytic transfer */
+    private CWSSimEvent completion;
+
     /**
      * @param job - the job this transfer transfers file from/to
      * @param file - the transferred file
@@ -73,4 +83,36 @@ public class GlobalStorageTransfer {
     public void addDuration(double amount) {
         duration += amount;
     }
+
+    /**
+     * @return Whether an analytic transfer has passed its latency and is transferring bytes.
+     */
+    public boolean isStarted() {
+        return speed > 0;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Accounts bytes and time transferred at the current speed since the last update and switches to the new speed.
+     */
+    public void updateSpeed(double now, double newSpeed) {
+        if (isStarted()) {
+            double elapsed = now - lastUpdateTime;
+            addDuration(elapsed);
+            addBytesTransferred(Math.min(elapsed * speed, getRemainingBytesToTransfer()));
+        }
+        lastUpdateTime = now;
+        speed = newSpeed;
+    }
+
+    public CWSSimEvent getCompletion() {
+        return completion;
+    }
+
+    public void setCompletion(CWSSimEvent completion) {
+        this.completion = completion;
+    }
 }
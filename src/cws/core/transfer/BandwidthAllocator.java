@@ -0,0 +1,264 @@
+package cws.core.transfer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the max-min fair bandwidth allocation of a changing set of transfers.
+ *
+ * Every transfer is a flow over three nodes: its source port, its destination
+ * port and its link. The nodes and flows are kept between calls, and when
+ * transfers are added or removed only the connected components (nodes that
+ * share flows) touched by the change are solved again with the progressive
+ * filling algorithm. Flows of a node are kept in plain arrays.
+ *
+ * @see TransferManager
+ */
+public class BandwidthAllocator {
+
+    /** A port or a link with fixed capacity shared by its flows */
+    private static class Node {
+        Object key;
+        double capacity;
+        Flow[] flows = new Flow[4];
+        int numFlows;
+
+        /** Capacity not yet allocated while solving */
+        double remaining;
+        /** Number of flows not yet allocated while solving */
+        int unallocated;
+        /** Equal to the allocator's stamp when already visited in the current allocate() */
+        int stamp;
+        boolean dirty;
+
+        void add(Flow f) {
+            if (numFlows == flows.length) {
+                Flow[] grown = new Flow[flows.length * 2];
+                System.arraycopy(flows, 0, grown, 0, numFlows);
+                flows = grown;
+            }
+            flows[numFlows++] = f;
+        }
+
+        void remove(Flow f) {
+            for (int i = 0; i < numFlows; i++) {
+                if (flows[i] == f) {
+                    flows[i] = flows[--numFlows];
+                    flows[numFlows] = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    /** The bandwidth allocated to a transfer */
+    private static class Flow {
+        Transfer transfer;
+        /** Source port, destination port and link. The same node may appear twice. */
+        Node[] path = new Node[3];
+        double allocation;
+        int stamp;
+        boolean allocated;
+
+        /** @return Whether path[i] is the first occurrence of its node in the path */
+        boolean isFirst(int i) {
+            for (int j = 0; j < i; j++) {
+                if (path[j] == path[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /** Nodes in use, by Port or Link */
+    private Map<Object, Node> nodes = new HashMap<Object, Node>();
+
+    private Map<Transfer, Flow> flows = new HashMap<Transfer, Flow>();
+
+    /** Nodes whose flows changed since the last allocate() */
+    private List<Node> dirtyNodes = new ArrayList<Node>();
+
+    /** Working lists of the component being solved, kept to avoid reallocation */
+    private List<Node> componentNodes = new ArrayList<Node>();
+    private List<Flow> componentFlows = new ArrayList<Flow>();
+
+    private int stamp;
+
+    /**
+     * Adds the transfer to the allocation. Its bandwidth is known after the next {@link #allocate()}.
+     */
+    public void add(Transfer t) {
+        if (flows.containsKey(t)) {
+            throw new IllegalArgumentException("Duplicate transfer: " + t);
+        }
+        Flow f = new Flow();
+        f.transfer = t;
+        f.path[0] = getNode(t.getSourcePort(), t.getSourcePort().getBandwidth());
+        f.path[1] = getNode(t.getDestinationPort(), t.getDestinationPort().getBandwidth());
+        f.path[2] = getNode(t.getLink(), t.getLink().getBandwidth());
+        for (int i = 0; i < f.path.length; i++) {
+            if (f.isFirst(i)) {
+                f.path[i].add(f);
+                markDirty(f.path[i]);
+            }
+        }
+        flows.put(t, f);
+    }
+
+    /**
+     * Removes the transfer from the allocation, the bandwidth of transfers sharing nodes with it is recomputed by the
+     * next {@link #allocate()}.
+     */
+    public void remove(Transfer t) {
+        Flow f = flows.remove(t);
+        if (f == null) {
+            throw new IllegalArgumentException("Unknown transfer: " + t);
+        }
+        for (int i = 0; i < f.path.length; i++) {
+            if (f.isFirst(i)) {
+                Node n = f.path[i];
+                n.remove(f);
+                markDirty(n);
+                if (n.numFlows == 0) {
+                    nodes.remove(n.key);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The bandwidth allocated to the transfer by the last {@link #allocate()}.
+     */
+    public double getAllocation(Transfer t) {
+        Flow f = flows.get(t);
+        if (f == null) {
+            throw new IllegalArgumentException("Unknown transfer: " + t);
+        }
+        return f.allocation;
+    }
+
+    public int size() {
+        return flows.size();
+    }
+
+    /**
+     * Recomputes the allocation of all the components changed since the last call.
+     */
+    public void allocate() {
+        if (dirtyNodes.isEmpty()) {
+            return;
+        }
+        stamp++;
+        for (Node dirty : dirtyNodes) {
+            dirty.dirty = false;
+            if (dirty.numFlows > 0 && dirty.stamp != stamp) {
+                collectComponent(dirty);
+                solveComponent();
+            }
+        }
+        dirtyNodes.clear();
+    }
+
+    private Node getNode(Object key, double capacity) {
+        Node n = nodes.get(key);
+        if (n == null) {
+            n = new Node();
+            n.key = key;
+            n.capacity = capacity;
+            nodes.put(key, n);
+        }
+        return n;
+    }
+
+    private void markDirty(Node n) {
+        if (!n.dirty) {
+            n.dirty = true;
+            dirtyNodes.add(n);
+        }
+    }
+
+    /** Puts all the nodes and flows connected to the given node into the component lists */
+    private void collectComponent(Node start) {
+        componentNodes.clear();
+        componentFlows.clear();
+        start.stamp = stamp;
+        componentNodes.add(start);
+        for (int i = 0; i < componentNodes.size(); i++) {
+            Node n = componentNodes.get(i);
+            for (int j = 0; j < n.numFlows; j++) {
+                Flow f = n.flows[j];
+                if (f.stamp != stamp) {
+                    f.stamp = stamp;
+                    componentFlows.add(f);
+                    for (Node next : f.path) {
+                        if (next.stamp != stamp) {
+                            next.stamp = stamp;
+                            componentNodes.add(next);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** Progressive filling over the collected component */
+    private void solveComponent() {
+        for (Node n : componentNodes) {
+            n.remaining = n.capacity;
+            n.unallocated = n.numFlows;
+        }
+        for (Flow f : componentFlows) {
+            f.allocation = 0.0;
+            f.allocated = false;
+        }
+
+        // As long as there are nodes remaining that have flows
+        int nnodes = componentNodes.size();
+        while (nnodes > 0) {
+
+            // Find the node with the smallest remaining fair share
+            Node minNode = null;
+            double minShare = Double.MAX_VALUE;
+            for (int i = 0; i < nnodes; i++) {
+                Node n = componentNodes.get(i);
+                double share = n.remaining / n.unallocated;
+                if (share <= minShare) {
+                    minShare = share;
+                    minNode = n;
+                }
+            }
+
+            // Allocate the min share to each flow that uses the min node
+            for (int j = 0; j < minNode.numFlows; j++) {
+                Flow f = minNode.flows[j];
+                if (f.allocated) {
+                    continue;
+                }
+                f.allocated = true;
+                f.allocation += minShare;
+                for (int p = 0; p < f.path.length; p++) {
+                    f.path[p].remaining -= minShare;
+                    if (f.isFirst(p)) {
+                        f.path[p].unallocated--;
+                    }
+                }
+            }
+
+            // Remove all nodes with no remaining flows
+            int i = 0;
+            while (i < nnodes) {
+                Node n = componentNodes.get(i);
+                if (n.unallocated == 0) {
+                    // Swap with the last node
+                    nnodes--;
+                    componentNodes.set(i, componentNodes.get(nnodes));
+                } else {
+                    i++;
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package cws.core.transfer;
 
+import cws.core.cloudsim.CloudSimWrapper;
+
 /**
  * A network port with fixed available bandwidth. This object represents
  * the incoming or outgoing bandwidth of a full-duplex network interface.
@@ -11,17 +13,14 @@ package cws.core.transfer;
  * @author Gideon Juve <juve@usc.edu>
  */
 public class Port {
-    /** Next unique port ID */
-    private static int next_id = 0;
-
     /** Unique ID for this port */
     private int id;
 
     /** Available bandwidth in Mbps */
     private double bandwidth;
 
-    public Port(double bandwidth) {
-        this.id = next_id++;
+    public Port(double bandwidth, CloudSimWrapper cloudsim) {
+        this.id = cloudsim.nextId(Port.class);
         this.bandwidth = bandwidth;
     }
 
@@ -1,7 +1,5 @@
 package cws.core.transfer;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 
@@ -37,9 +35,10 @@ import cws.core.exception.UnknownWorkflowEventException;
  * Because transfers share ports and links, and transfers may start and stop at
  * different times, the bandwidth assigned to each transfer may change. Each
  * time a new transfer is started, or an existing transfer completes, we
- * recompute the bandwidth assigned to every transfer in the simulation. The
- * algorithm used to compute the bandwidth ensures max-min fairness between
- * streams sharing constrained ports and links.
+ * recompute the bandwidth assigned to the transfers sharing ports and links
+ * with it (see {@link BandwidthAllocator}). The algorithm used to compute the
+ * bandwidth ensures max-min fairness between streams sharing constrained ports
+ * and links.
  * 
  * @author Gideon Juve <juve@usc.edu>
  */
@@ -50,6 +49,9 @@ public class TransferManager extends CWSSimEntity {
     /** All the incomplete transfers */
     private HashSet<Transfer> activeTransfers;
 
+    /** Bandwidth allocation of the active transfers */
+    private BandwidthAllocator allocator;
+
     /** Listeners for transfer events */
     private HashSet<TransferListener> listeners;
 
@@ -57,6 +59,7 @@ public class TransferManager extends CWSSimEntity {
         super("TransferManager", cloudsim);
         cloudsim.addEntity(this);
         activeTransfers = new HashSet<Transfer>();
+        allocator = new BandwidthAllocator();
         listeners = new HashSet<TransferListener>();
     }
 
@@ -126,6 +129,7 @@ public class TransferManager extends CWSSimEntity {
 
         // Add the transfer to the active transfers list
         this.activeTransfers.add(t);
+        this.allocator.add(t);
 
         // Update the progress of all transfers
         updateProgress();
@@ -151,6 +155,7 @@ public class TransferManager extends CWSSimEntity {
         // Remove any completed transfers
         for (Transfer t : completedTransfers) {
             activeTransfers.remove(t);
+            allocator.remove(t);
 
             // It takes 1 RTT to get the final ACK
             double rttSec = t.getRTT() * MSEC_TO_SEC;
@@ -160,23 +165,23 @@ public class TransferManager extends CWSSimEntity {
         // If there are still some transfers remaining
         if (activeTransfers.size() > 0) {
 
-            // Recompute bandwidth for remaining transfers
-            Transfer[] transfers = activeTransfers.toArray(new Transfer[0]);
-            double[] allocations = TransferManager.allocateBandwidth(transfers);
+            // Recompute bandwidth of the transfers affected by the changes
+            allocator.allocate();
 
-            // Update bandwidth
-            for (int i = 0; i < transfers.length; i++) {
+            // Update bandwidth, this also restarts progress accounting of every transfer
+            for (Transfer t : activeTransfers) {
+                double allocation = allocator.getAllocation(t);
 
                 // Did bandwidth change by more than 1bps?
-                boolean changed = Math.abs(transfers[i].getCurrentBandwidth() - allocations[i]) >= 0.000001;
+                boolean changed = Math.abs(t.getCurrentBandwidth() - allocation) >= 0.000001;
 
                 // Update bandwidth
-                transfers[i].updateBandwidth(allocations[i]);
+                t.updateBandwidth(allocation);
 
                 // If bandwidth changed, notify listeners
                 if (changed) {
                     for (TransferListener tl : listeners) {
-                        tl.bandwidthChanged(transfers[i]);
+                        tl.bandwidthChanged(t);
                     }
                 }
             }
@@ -190,122 +195,18 @@ public class TransferManager extends CWSSimEntity {
         }
     }
 
-    /** A node is a network element with a bandwidth capacity */
-    private static class Node {
-        public HashSet<Flow> flows = new HashSet<Flow>();
-        public double capacity = 0.0;
-    }
-
-    /** A flow is the bandwidth allocated to a transfer */
-    private static class Flow {
-        public Node[] path = new Node[3];
-        public double allocation = 0.0;
-    }
-
     /**
-     * Called when we need to compute the bandwidth assigned to each
-     * transfer. This uses the progressive filling algorithm.
+     * Computes the max-min fair bandwidth of the given transfers from scratch.
      */
     public static double[] allocateBandwidth(Transfer[] transfers) {
-
-        Flow[] flows = new Flow[transfers.length];
-        ArrayList<Node> nodes = new ArrayList<Node>();
-
-        // These are used to find the set of unique Ports and Links
-        HashMap<Port, Node> ports = new HashMap<Port, Node>();
-        HashMap<Link, Node> links = new HashMap<Link, Node>();
-
-        // This loop just sets up the data structures
-        for (int i = 0; i < transfers.length; i++) {
-            Node n;
-
-            // Create a flow for each transfer
-            Transfer t = transfers[i];
-            Flow f = flows[i] = new Flow();
-
-            // Add the source port
-            Port src = t.getSourcePort();
-            if (ports.containsKey(src)) {
-                n = ports.get(src);
-            } else {
-                n = new Node();
-                nodes.add(n);
-                n.capacity = src.getBandwidth();
-                ports.put(src, n);
-            }
-            n.flows.add(f);
-            f.path[0] = n;
-
-            // Add the destination port
-            Port dest = t.getDestinationPort();
-            if (ports.containsKey(dest)) {
-                n = ports.get(dest);
-            } else {
-                n = new Node();
-                nodes.add(n);
-                n.capacity = dest.getBandwidth();
-                ports.put(dest, n);
-            }
-            n.flows.add(f);
-            f.path[1] = n;
-
-            // Add the link
-            Link link = t.getLink();
-            if (links.containsKey(link)) {
-                n = links.get(link);
-            } else {
-                n = new Node();
-                nodes.add(n);
-                n.capacity = link.getBandwidth();
-                links.put(link, n);
-            }
-            n.flows.add(f);
-            f.path[2] = n;
-        }
-
-        // As long as there are nodes remaining that have flows
-        int nnodes = nodes.size();
-        while (nnodes > 0) {
-
-            // Find the node with the smallest remaining fair share
-            Node minNode = null;
-            double minShare = Double.MAX_VALUE;
-            for (Node n : nodes) {
-                double share = n.capacity / n.flows.size();
-                if (share <= minShare) {
-                    minShare = share;
-                    minNode = n;
-                }
-            }
-
-            // Allocate the min share to each flow that uses the min node
-            Flow[] myflows = minNode.flows.toArray(new Flow[0]);
-            for (Flow f : myflows) {
-                f.allocation += minShare;
-                for (Node n : f.path) {
-                    n.capacity -= minShare;
-                    n.flows.remove(f);
-                }
-            }
-
-            // Remove all nodes with no remaining flows
-            int i = 0;
-            while (i < nnodes) {
-                Node n = nodes.get(i);
-                if (n.flows.size() == 0) {
-                    // Swap with the last node
-                    nnodes--;
-                    nodes.set(i, nodes.get(nnodes));
-                } else {
-                    i++;
-                }
-            }
+        BandwidthAllocator allocator = new BandwidthAllocator();
+        for (Transfer t : transfers) {
+            allocator.add(t);
         }
-
-        // Return allocations
+        allocator.allocate();
         double[] allocations = new double[transfers.length];
         for (int i = 0; i < transfers.length; i++) {
-            allocations[i] = flows[i].allocation;
+            allocations[i] = allocator.getAllocation(transfers[i]);
         }
         return allocations;
     }
@@ -34,18 +34,19 @@ public class VMFactoryTest {
         ContinuousDistribution deprovisioningDelayDistribution = new LognormalDistr(new java.util.Random(0), 2.96542,
                 0.09975135);
 
-        VMFactory.setProvisioningDelayDistribution(provisioningDelayDistribution);
-        VMFactory.setDeprovisioningDelayDistribution(deprovisioningDelayDistribution);
+        VMFactory vmFactory = new VMFactory();
+        vmFactory.setProvisioningDelayDistribution(provisioningDelayDistribution);
+        vmFactory.setDeprovisioningDelayDistribution(deprovisioningDelayDistribution);
 
         VMStaticParams vmStaticParams = VMStaticParams.getDefaults();
 
         for (int i = 0; i < 1000; i++) {
-            VM vm = VMFactory.createVM(vmStaticParams, cloudsim);
+            VM vm = vmFactory.createVM(vmStaticParams, cloudsim);
             assertTrue(vm.getProvisioningDelay() > 0.0);
             System.out.println(vm.getProvisioningDelay());
         }
         for (int i = 0; i < 1000; i++) {
-            VM vm = VMFactory.createVM(vmStaticParams, cloudsim);
+            VM vm = vmFactory.createVM(vmStaticParams, cloudsim);
             assertTrue(vm.getDeprovisioningDelay() > 0.0);
             System.out.println(vm.getDeprovisioningDelay());
         }
@@ -2,6 +2,8 @@ package cws.core;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -9,6 +11,7 @@ import cws.core.algorithms.VMType;
 import cws.core.cloudsim.CWSSimEntity;
 import cws.core.cloudsim.CWSSimEvent;
 import cws.core.cloudsim.CloudSimWrapper;
+import cws.core.dag.DAGFile;
 import cws.core.dag.Task;
 import cws.core.jobs.Job;
 import cws.core.storage.StorageManager;
@@ -16,7 +19,6 @@ import cws.core.storage.VoidStorageManager;
 
 public class VMTest {
     private CloudSimWrapper cloudsim;
-    @SuppressWarnings("unused")
     private StorageManager storageManager;
 
     private class VMDriver extends CWSSimEntity {
@@ -89,6 +91,7 @@ public class VMTest {
         assertEquals(0.0, j.getSubmitTime(), 0.0);
         assertEquals(0.0, j.getStartTime(), 0.0);
         assertEquals(10.0, j.getFinishTime(), 0.0);
+        assertEquals(storageManager.getId(), vm.getStorageManager());
     }
 
     @Test
@@ -151,4 +154,34 @@ public class VMTest {
         assertEquals(0.0, j2.getStartTime(), 0.0);
         assertEquals(10.0, j2.getFinishTime(), 0.0);
     }
+
+    @Test
+    public void testSynchronousStorageIsCalledInline() {
+        Job j = new Job(cloudsim);
+        Task task = new Task("task_id", "transformation", 1000, VMType.DEFAULT_VM_TYPE);
+        task.addInputFiles(Arrays.asList(new DAGFile("in1", 100), new DAGFile("in2", 200)));
+        task.addOutputFiles(Arrays.asList(new DAGFile("out", 50)));
+        j.setTask(task);
+
+        VMStaticParams vmStaticParams = new VMStaticParams();
+        vmStaticParams.setMips(100);
+        vmStaticParams.setCores(1);
+        vmStaticParams.setPrice(0.40);
+
+        VM vm = new VM(vmStaticParams, cloudsim);
+
+        VMDriver driver = new VMDriver(vm, cloudsim);
+        driver.setJobs(new Job[] { j });
+
+        cloudsim.startSimulation();
+
+        assertEquals(0.0, j.getStartTime(), 0.0);
+        assertEquals(10.0, j.getFinishTime(), 0.0);
+        assertEquals(0, cloudsim.getMetrics().getEventsByEntity(storageManager.getId()));
+        assertEquals(300, storageManager.getStorageManagerStatistics().getTotalBytesToRead());
+        assertEquals(300, storageManager.getStorageManagerStatistics().getActualBytesRead());
+        assertEquals(2, storageManager.getStorageManagerStatistics().getActualFilesRead());
+        assertEquals(50, storageManager.getStorageManagerStatistics().getTotalBytesToWrite());
+        assertEquals(1, storageManager.getStorageManagerStatistics().getTotalFilesToWrite());
+    }
 }
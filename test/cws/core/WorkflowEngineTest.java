@@ -0,0 +1,160 @@
+package cws.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cws.core.algorithms.VMType;
+import cws.core.cloudsim.CloudSimWrapper;
+import cws.core.dag.DAG;
+import cws.core.dag.DAGJob;
+import cws.core.dag.Task;
+import cws.core.jobs.Job;
+import cws.core.jobs.JobListener;
+import cws.core.scheduler.DAGDynamicScheduler;
+import cws.core.storage.StorageManager;
+import cws.core.storage.VoidStorageManager;
+
+public class WorkflowEngineTest {
+    private CloudSimWrapper cloudsim;
+
+    /**
+     * Records the time and the number of free VMs of every pass.
+     */
+    private static class RecordingScheduler implements Scheduler {
+        private List<String> passes = new ArrayList<String>();
+        private CloudSimWrapper cloudsim;
+
+        public RecordingScheduler(CloudSimWrapper cloudsim) {
+            this.cloudsim = cloudsim;
+        }
+
+        @Override
+        public void scheduleJobs(WorkflowEngine engine) {
+            passes.add(cloudsim.clock() + ":" + engine.getFreeVMs().size());
+        }
+
+        @Override
+        public void setWorkflowEngine(WorkflowEngine engine) {
+            // do nothing
+        }
+
+        @Override
+        public void setStorageManager(StorageManager storageManager) {
+            // do nothing
+        }
+    }
+
+    @Before
+    public void setUp() {
+        cloudsim = new CloudSimWrapper();
+        cloudsim.init();
+    }
+
+    /**
+     * Records "task@vm:finish time" of every finished job.
+     */
+    private static class FinishRecorder implements JobListener {
+        private List<String> finished = new ArrayList<String>();
+
+        @Override
+        public void jobReleased(Job job) {
+            // do nothing
+        }
+
+        @Override
+        public void jobSubmitted(Job job) {
+            // do nothing
+        }
+
+        @Override
+        public void jobStarted(Job job) {
+            // do nothing
+        }
+
+        @Override
+        public void jobFinished(Job job) {
+            finished.add(job.getTask().getId() + "@" + job.getVM().getName() + ":" + job.getFinishTime());
+        }
+    }
+
+    @Test
+    public void testSchedulingPassPerEventByDefault() {
+        RecordingScheduler scheduler = new RecordingScheduler(cloudsim);
+        WorkflowEngine engine = new WorkflowEngine(null, scheduler, cloudsim);
+        assertFalse(engine.isCoalesceScheduling());
+        launchVMs(engine, 3);
+        cloudsim.startSimulation();
+        assertEquals("[0.0:1, 0.0:2, 0.0:3]", scheduler.passes.toString());
+    }
+
+    @Test
+    public void testOneSchedulingPassPerBurst() {
+        RecordingScheduler scheduler = new RecordingScheduler(cloudsim);
+        WorkflowEngine engine = new WorkflowEngine(null, scheduler, cloudsim);
+        engine.setCoalesceScheduling(true);
+        for (int i = 0; i < 3; i++) {
+            VM vm = new VM(new VMStaticParams(), cloudsim);
+            cloudsim.send(-1, engine.getId(), 0.0, WorkflowEvent.VM_LAUNCHED, vm);
+        }
+        VM late = new VM(new VMStaticParams(), cloudsim);
+        cloudsim.send(-1, engine.getId(), 5.0, WorkflowEvent.VM_LAUNCHED, late);
+        cloudsim.startSimulation();
+        assertEquals("[0.0:3, 5.0:4]", scheduler.passes.toString());
+    }
+
+    /**
+     * Separate passes start from the first free VM every time, so both roots and then both children queue on VM0.
+     */
+    @Test
+    public void testPerEventPassesQueueJobsOnFirstVM() {
+        assertEquals("[A@VM0:10.0, B@VM0:20.0, C@VM0:30.0, D@VM0:40.0]", runForkDAG(false).toString());
+    }
+
+    /**
+     * A merged pass sees both VMs and both ready jobs, so the two chains run side by side.
+     */
+    @Test
+    public void testMergedPassSpreadsJobsOverVMs() {
+        assertEquals("[A@VM0:10.0, B@VM1:10.0, C@VM0:20.0, D@VM1:20.0]", runForkDAG(true).toString());
+    }
+
+    /**
+     * Runs the chains A->C and B->D, every task 10 seconds long, on two VMs launched together.
+     */
+    private List<String> runForkDAG(boolean coalesceScheduling) {
+        new VoidStorageManager(cloudsim);
+        DAG dag = new DAG();
+        for (String id : new String[] { "A", "B", "C", "D" }) {
+            dag.addTask(new Task(id, "transformation", 1000, VMType.DEFAULT_VM_TYPE));
+        }
+        dag.addEdge("A", "C");
+        dag.addEdge("B", "D");
+
+        WorkflowEngine engine = new WorkflowEngine(null, new DAGDynamicScheduler(cloudsim), cloudsim);
+        engine.setCoalesceScheduling(coalesceScheduling);
+        FinishRecorder recorder = new FinishRecorder();
+        engine.addJobListener(recorder);
+
+        cloudsim.send(-1, engine.getId(), 0.0, WorkflowEvent.DAG_SUBMIT, new DAGJob(dag, -1));
+        for (int i = 0; i < 2; i++) {
+            VM vm = new VM(new VMStaticParams().setMips(100).setCores(1), cloudsim);
+            cloudsim.send(-1, vm.getId(), 0.0, WorkflowEvent.VM_LAUNCH);
+            cloudsim.send(-1, engine.getId(), 0.0, WorkflowEvent.VM_LAUNCHED, vm);
+        }
+        cloudsim.startSimulation();
+        return recorder.finished;
+    }
+
+    private void launchVMs(WorkflowEngine engine, int numVMs) {
+        for (int i = 0; i < numVMs; i++) {
+            VM vm = new VM(new VMStaticParams(), cloudsim);
+            cloudsim.send(-1, engine.getId(), 0.0, WorkflowEvent.VM_LAUNCHED, vm);
+        }
+    }
+}
@@ -46,4 +46,14 @@ public class TestRunCliTest {
         Assert.assertEquals(333, params.getChunkTransferTime(), 0.001);
         Assert.assertEquals(98, params.getNumReplicas());
     }
+
+    @Test
+    public void testParseThreads() throws ParseException {
+        CommandLineParser parser = new PosixParser();
+        String[] args = ("--application GENOME --input-dir /home/xxxxx"
+                + " --output-file simulation_out.csv --distribution pareto_unsorted "
+                + "--algorithm DPDS --storage-manager void -th 8").split("\\s+");
+        CommandLine cmd = parser.parse(options, args);
+        Assert.assertEquals("8", cmd.getOptionValue("threads"));
+    }
 }
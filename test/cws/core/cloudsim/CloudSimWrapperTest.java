@@ -0,0 +1,221 @@
+package cws.core.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Log;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CloudSimWrapperTest {
+    private CloudSimWrapper cloudsim;
+
+    /**
+     * Records "time:tag" of every received event.
+     */
+    private static class Recorder extends CWSSimEntity {
+        private List<String> received = new ArrayList<String>();
+
+        public Recorder(String name, CloudSimWrapper cloudsim) {
+            super(name, cloudsim);
+        }
+
+        @Override
+        public void processEvent(CWSSimEvent ev) {
+            received.add(getCloudsim().clock() + ":" + ev.getTag());
+        }
+    }
+
+    @Before
+    public void setUp() {
+        cloudsim = new CloudSimWrapper();
+        cloudsim.init();
+    }
+
+    @Test
+    public void testEntitiesGetDenseIds() {
+        Recorder first = new Recorder("first", cloudsim);
+        Recorder second = new Recorder("second", cloudsim);
+        cloudsim.addEntity(second);
+        assertEquals(0, first.getId());
+        assertEquals(1, second.getId());
+        assertEquals(1, cloudsim.getEntityId("second"));
+        assertEquals(-1, cloudsim.getEntityId("third"));
+    }
+
+    @Test
+    public void testIdsArePerSimulationAndKind() {
+        CloudSimWrapper other = new CloudSimWrapper();
+        assertEquals(0, cloudsim.nextId(String.class));
+        assertEquals(1, cloudsim.nextId(String.class));
+        assertEquals(0, cloudsim.nextId(Integer.class));
+        assertEquals(0, other.nextId(String.class));
+        assertEquals(2, cloudsim.getIds().count(String.class));
+        cloudsim.init();
+        assertEquals(0, cloudsim.nextId(String.class));
+    }
+
+    @Test
+    public void testEventsAreDeliveredInTimeAndSendOrder() {
+        Recorder recorder = new Recorder("recorder", cloudsim);
+        cloudsim.send(-1, recorder.getId(), 2.0, 1);
+        cloudsim.send(-1, recorder.getId(), 1.0, 2);
+        cloudsim.send(-1, recorder.getId(), 2.0, 3);
+        cloudsim.send(-1, recorder.getId(), 1.0, 4);
+        assertEquals(2.0, cloudsim.startSimulation(), 0.0);
+        assertEquals("[1.0:2, 1.0:4, 2.0:1, 2.0:3]", recorder.received.toString());
+    }
+
+    @Test
+    public void testEntitiesProcessEventsInIdOrder() {
+        final List<String> order = new ArrayList<String>();
+        CWSSimEntity[] entities = new CWSSimEntity[3];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = new CWSSimEntity("entity" + i, cloudsim) {
+                @Override
+                public void processEvent(CWSSimEvent ev) {
+                    order.add(getName() + ":" + ev.getTag());
+                    if (ev.getTag() == 1) {
+                        // sent while processing, so only seen in the next tick
+                        getCloudsim().send(getId(), 0, 0.0, 3);
+                    }
+                }
+            };
+        }
+        cloudsim.send(-1, 2, 1.0, 1);
+        cloudsim.send(-1, 0, 1.0, 2);
+        cloudsim.send(-1, 2, 1.0, 2);
+        cloudsim.startSimulation();
+        assertEquals("[entity0:2, entity2:1, entity2:2, entity0:3]", order.toString());
+    }
+
+    @Test
+    public void testZeroDelayEventsBypassFutureQueue() {
+        final List<String> order = new ArrayList<String>();
+        CWSSimEntity entity = new CWSSimEntity("entity", cloudsim) {
+            @Override
+            public void processEvent(CWSSimEvent ev) {
+                order.add(getCloudsim().clock() + ":" + ev.getTag());
+                if (ev.getTag() == 1) {
+                    getCloudsim().send(getId(), getId(), 1.0, 4);
+                    getCloudsim().send(getId(), getId(), 0.0, 5);
+                    getCloudsim().send(getId(), getId(), 0.0, 6);
+                    getCloudsim().send(getId(), getId(), 0.0, 7);
+                    getCloudsim().cancelAll(getId(), 6);
+                }
+            }
+        };
+        cloudsim.send(-1, entity.getId(), 1.0, 1);
+        cloudsim.send(-1, entity.getId(), 2.0, 2);
+        cloudsim.send(-1, entity.getId(), 0.0, 3);
+        cloudsim.startSimulation();
+        assertEquals("[0.0:3, 1.0:1, 1.0:5, 1.0:7, 2.0:2, 2.0:4]", order.toString());
+        assertEquals(4, cloudsim.getMetrics().getImmediateEvents());
+    }
+
+    @Test
+    public void testCancelAll() {
+        Recorder recorder = new Recorder("recorder", cloudsim);
+        cloudsim.send(7, recorder.getId(), 1.0, 1);
+        cloudsim.send(7, recorder.getId(), 1.0, 2);
+        cloudsim.send(8, recorder.getId(), 1.0, 1);
+        cloudsim.cancelAll(7, 1);
+        cloudsim.startSimulation();
+        assertEquals("[1.0:2, 1.0:1]", recorder.received.toString());
+    }
+
+    @Test
+    public void testCancelledEventsDoNotAdvanceClock() {
+        Recorder recorder = new Recorder("recorder", cloudsim);
+        cloudsim.send(-1, recorder.getId(), 1.0, 1);
+        CWSSimEvent late = cloudsim.sendToMyself(recorder, 5.0, 2, null);
+        cloudsim.cancel(late);
+        assertEquals(1.0, cloudsim.startSimulation(), 0.0);
+        assertEquals("[1.0:1]", recorder.received.toString());
+    }
+
+    @Test
+    public void testCancelRemovesFutureEvent() {
+        Recorder recorder = new Recorder("recorder", cloudsim);
+        CWSSimEvent ev = cloudsim.sendToMyself(recorder, 5.0, 2, null);
+        cloudsim.cancel(ev);
+        cloudsim.cancel(ev);
+        // counted once, when it leaves the queue
+        assertEquals(1, cloudsim.getMetrics().getCancelledEvents());
+        cloudsim.sendToMyself(recorder, 1.0, 1, null);
+        assertEquals(1, cloudsim.getMetrics().getPeakQueueDepth());
+        assertEquals(1.0, cloudsim.startSimulation(), 0.0);
+        assertEquals(1, cloudsim.getMetrics().getCancelledEvents());
+    }
+
+    @Test
+    public void testMetricsCountProcessedEvents() {
+        Recorder first = new Recorder("first", cloudsim);
+        Recorder second = new Recorder("second", cloudsim);
+        cloudsim.send(-1, first.getId(), 1.0, 1);
+        cloudsim.send(-1, first.getId(), 2.0, 100);
+        cloudsim.send(-1, second.getId(), 2.0, 1);
+        cloudsim.cancel(cloudsim.sendToMyself(second, 3.0, 2, null));
+        cloudsim.startSimulation();
+
+        SimulationMetrics metrics = cloudsim.getMetrics();
+        assertEquals(3, metrics.getEvents());
+        assertEquals(1, metrics.getCancelledEvents());
+        assertEquals(4, metrics.getPeakQueueDepth());
+        assertEquals(2, metrics.getEventsByTag(1));
+        assertEquals(1, metrics.getEventsByTag(100));
+        assertEquals(0, metrics.getEventsByTag(2));
+        assertEquals("[1, 100]", Arrays.toString(metrics.getTags()));
+        assertEquals(2, metrics.getEventsByEntity(first.getId()));
+        assertEquals(1, metrics.getEventsByEntity(second.getId()));
+        assertTrue(metrics.getEventsPerSecond() > 0.0);
+
+        cloudsim.init();
+        assertEquals(0, cloudsim.getMetrics().getEvents());
+    }
+
+    @Test
+    public void testSimulationsAreIndependent() {
+        CloudSimWrapper other = new CloudSimWrapper();
+        Recorder recorder = new Recorder("recorder", cloudsim);
+        Recorder otherRecorder = new Recorder("recorder", other);
+        cloudsim.send(-1, recorder.getId(), 5.0, 1);
+        other.send(-1, otherRecorder.getId(), 3.0, 2);
+        assertEquals(5.0, cloudsim.startSimulation(), 0.0);
+        assertEquals(0.0, other.clock(), 0.0);
+        assertEquals(3.0, other.startSimulation(), 0.0);
+        assertEquals("[5.0:1]", recorder.received.toString());
+        assertEquals("[3.0:2]", otherRecorder.received.toString());
+    }
+
+    @Test
+    public void testLogIsGated() {
+        OutputStream previousOutput = Log.getOutput();
+        boolean previouslyDisabled = Log.isDisabled();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            Log.setOutput(out);
+            Log.enable();
+            assertTrue(cloudsim.isLogEnabled());
+            cloudsim.log("job %s on VM %d", "ID1", 3);
+            assertEquals("0.0 (0.0) job ID1 on VM 3", out.toString().trim());
+
+            cloudsim.disableLogging();
+            out.reset();
+            assertFalse(cloudsim.isLogEnabled());
+            cloudsim.log("job %s on VM %d", "ID1", 3);
+            cloudsim.log("plain");
+            assertEquals("", out.toString());
+        } finally {
+            Log.setOutput(previousOutput);
+            Log.setDisabled(previouslyDisabled);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package cws.core.cloudsim;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class EventQueueTest {
+    private static final Comparator<CWSSimEvent> EVENT_ORDER = new Comparator<CWSSimEvent>() {
+        @Override
+        public int compare(CWSSimEvent e1, CWSSimEvent e2) {
+            return e1.isBefore(e2) ? -1 : (e2.isBefore(e1) ? 1 : 0);
+        }
+    };
+
+    private long serial;
+
+    private CWSSimEvent event(double time, int src, int tag) {
+        return new CWSSimEvent(time, serial++, src, 0, tag, null);
+    }
+
+    @Test
+    public void testEmptyQueue() {
+        for (EventQueueType type : EventQueueType.values()) {
+            EventQueue queue = type.createQueue();
+            assertTrue(queue.isEmpty());
+            assertNull(queue.peek());
+            assertNull(queue.poll());
+        }
+    }
+
+    @Test
+    public void testTiesInSendOrder() {
+        for (EventQueueType type : EventQueueType.values()) {
+            EventQueue queue = type.createQueue();
+            CWSSimEvent a = event(2.0, 0, 0);
+            CWSSimEvent b = event(1.0, 0, 0);
+            CWSSimEvent c = event(2.0, 0, 0);
+            CWSSimEvent d = event(1.0, 0, 0);
+            queue.add(a);
+            queue.add(b);
+            queue.add(c);
+            queue.add(d);
+            assertEquals(4, queue.size());
+            assertSame(b, queue.poll());
+            assertSame(d, queue.poll());
+            assertSame(a, queue.peek());
+            assertSame(a, queue.poll());
+            assertSame(c, queue.poll());
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    public void testHoldModelWithDenseTimes() {
+        for (EventQueueType type : EventQueueType.values()) {
+            checkAgainstReference(type.createQueue(), new Random(1), 10.0, true);
+        }
+    }
+
+    @Test
+    public void testSparseAndUnorderedTimes() {
+        for (EventQueueType type : EventQueueType.values()) {
+            checkAgainstReference(type.createQueue(), new Random(2), 1.0e6, false);
+        }
+    }
+
+    /**
+     * Random adds, polls, removals of single events and of sources' tags compared with a PriorityQueue. The queue grows to a few thousand events and
+     * shrinks back, so the calendar is resized a few times.
+     */
+    private void checkAgainstReference(EventQueue queue, Random rng, double spread, boolean hold) {
+        PriorityQueue<CWSSimEvent> reference = new PriorityQueue<CWSSimEvent>(64, EVENT_ORDER);
+        double now = 0.0;
+        for (int step = 0; step < 20000; step++) {
+            int op = rng.nextInt(100);
+            boolean growing = step < 10000;
+            if (op < (growing ? 60 : 35)) {
+                double delay = rng.nextBoolean() ? 0.0 : Math.floor(rng.nextDouble() * spread);
+                double time = hold ? now + delay : rng.nextDouble() * spread;
+                CWSSimEvent ev = event(time, rng.nextInt(3), rng.nextInt(3));
+                queue.add(ev);
+                reference.add(ev);
+            } else if (op < 90) {
+                assertSame(reference.peek(), queue.peek());
+                CWSSimEvent ev = queue.poll();
+                assertSame(reference.poll(), ev);
+                if (ev != null) {
+                    now = ev.eventTime();
+                    assertFalse(queue.remove(ev));
+                }
+            } else if (op < 99) {
+                if (!reference.isEmpty()) {
+                    Iterator<CWSSimEvent> it = reference.iterator();
+                    for (int skip = rng.nextInt(reference.size()); skip > 0; skip--) {
+                        it.next();
+                    }
+                    CWSSimEvent ev = it.next();
+                    it.remove();
+                    assertTrue(queue.remove(ev));
+                    assertFalse(queue.remove(ev));
+                }
+            } else {
+                int src = rng.nextInt(3);
+                int tag = rng.nextInt(3);
+                queue.removeAll(src, tag);
+                Iterator<CWSSimEvent> it = reference.iterator();
+                while (it.hasNext()) {
+                    CWSSimEvent ev = it.next();
+                    if (ev.getSource() == src && ev.getTag() == tag) {
+                        it.remove();
+                    }
+                }
+            }
+            assertEquals(reference.size(), queue.size());
+        }
+        while (!reference.isEmpty()) {
+            assertSame(reference.poll(), queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testCalendarKernelDeliversSameOrder() {
+        CloudSimWrapper cloudsim = new CloudSimWrapper(EventQueueType.CALENDAR);
+        assertEquals(EventQueueType.CALENDAR, cloudsim.getQueueType());
+        cloudsim.init();
+        final StringBuilder received = new StringBuilder();
+        CWSSimEntity recorder = new CWSSimEntity("recorder", cloudsim) {
+            @Override
+            public void processEvent(CWSSimEvent ev) {
+                received.append(getCloudsim().clock()).append(':').append(ev.getTag()).append(' ');
+            }
+        };
+        cloudsim.send(-1, recorder.getId(), 2.0, 1);
+        cloudsim.send(-1, recorder.getId(), 1.0, 2);
+        cloudsim.send(-1, recorder.getId(), 2.0, 3);
+        cloudsim.send(-1, recorder.getId(), 1.0, 4);
+        cloudsim.send(5, recorder.getId(), 1.5, 5);
+        cloudsim.cancelAll(5, 5);
+        assertEquals(2.0, cloudsim.startSimulation(), 0.0);
+        assertEquals("1.0:2 1.0:4 2.0:1 2.0:3 ", received.toString());
+    }
+}
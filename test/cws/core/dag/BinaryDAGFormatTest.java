@@ -0,0 +1,112 @@
+package cws.core.dag;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BinaryDAGFormatTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTripOfTextDAG() throws IOException {
+        File bdag = folder.newFile("Montage_1000.bdag");
+        DAGConverter.convert(new File("dags/Montage_1000.dag"), bdag);
+        assertSameDAG(DAGParser.parseDAG(new File("dags/Montage_1000.dag")), DAGParser.parse(bdag));
+    }
+
+    @Test
+    public void testRoundTripOfDAX() throws IOException {
+        File bdag = folder.newFile("Montage_25.bdag");
+        DAGConverter.convert(new File("dags/Montage_25.xml"), bdag);
+        DAG dag = DAGParser.parseBinaryDAG(bdag);
+        assertSameDAG(DAGParser.parseDAX(new File("dags/Montage_25.xml")), dag);
+        assertEquals(38, dag.numFiles());
+    }
+
+    @Test
+    public void testFileUsesShareFileObjects() throws IOException {
+        File bdag = folder.newFile("test.bdag");
+        DAGConverter.convert(new File("dags/Montage_25.dag"), bdag);
+        DAG dag = DAGParser.parseBinaryDAG(bdag);
+        DAGFile consumed = dag.getTaskById("ID00022").getInputFiles().get(0);
+        for (String id : dag.getTasks()) {
+            for (DAGFile output : dag.getTaskById(id).getOutputFiles()) {
+                if (output.equals(consumed)) {
+                    assertSame(consumed, output);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOutputFileReplacesExtension() {
+        assertEquals(new File("/tmp/out/Montage_25.bdag"),
+                DAGConverter.getOutputFile(new File("dags/Montage_25.xml"), new File("/tmp/out")));
+        assertEquals(new File("dags/GENOME.n.1000.0.bdag").getAbsoluteFile(),
+                DAGConverter.getOutputFile(new File("dags/GENOME.n.1000.0.dag"), null));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testRejectsOtherFiles() {
+        DAGParser.parseBinaryDAG(new File("dags/test.dag"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testRejectsTruncatedFiles() throws IOException {
+        File bdag = folder.newFile("truncated.bdag");
+        DAGConverter.convert(new File("dags/test.dag"), bdag);
+        byte[] bytes = IOUtils.toByteArray(bdag.toURI());
+        FileOutputStream out = new FileOutputStream(bdag);
+        try {
+            out.write(bytes, 0, bytes.length / 2);
+        } finally {
+            out.close();
+        }
+        DAGParser.parseBinaryDAG(bdag);
+    }
+
+    private static void assertSameDAG(DAG expected, DAG actual) {
+        assertArrayEquals(expected.getTasks(), actual.getTasks());
+        assertArrayEquals(expected.getFiles(), actual.getFiles());
+        for (String name : expected.getFiles()) {
+            assertEquals(expected.getFileSize(name), actual.getFileSize(name));
+        }
+        for (String id : expected.getTasks()) {
+            Task e = expected.getTaskById(id);
+            Task a = actual.getTaskById(id);
+            assertEquals(e.getTransformation(), a.getTransformation());
+            assertEquals(e.getSize(), a.getSize(), 0.0);
+            assertEquals(ids(e.getParents()), ids(a.getParents()));
+            assertEquals(ids(e.getChildren()), ids(a.getChildren()));
+            assertEquals(files(e.getInputFiles()), files(a.getInputFiles()));
+            assertEquals(files(e.getOutputFiles()), files(a.getOutputFiles()));
+        }
+    }
+
+    private static String ids(List<Task> tasks) {
+        StringBuilder b = new StringBuilder();
+        for (Task t : tasks) {
+            b.append(t.getId()).append(' ');
+        }
+        return b.toString();
+    }
+
+    private static String files(List<DAGFile> files) {
+        StringBuilder b = new StringBuilder();
+        for (DAGFile f : files) {
+            b.append(f.getName()).append(':').append(f.getSize()).append(' ');
+        }
+        return b.toString();
+    }
+}
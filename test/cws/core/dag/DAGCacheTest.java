@@ -0,0 +1,73 @@
+package cws.core.dag;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DAGCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testParsesEveryFileOnce() {
+        DAGCache cache = new DAGCache(DAGCache.DEFAULT_MAX_SIZE);
+        DAG first = cache.getDAG(new File("dags/Montage_25.dag"), 1.0);
+        DAG second = cache.getDAG(new File("dags/../dags/Montage_25.dag"), 2.0);
+        assertNotSame(first, second);
+        String id = first.getTasks()[0];
+        assertEquals(2.0 * first.getTaskById(id).getSize(), second.getTaskById(id).getSize(), 0.0);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.numEntries());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        File montage = new File("dags/Montage_25.dag");
+        File cybershake = new File("dags/CyberShake_30.dag");
+        File test = new File("dags/test.dag");
+        DAGCache cache = new DAGCache(DAGCache.DEFAULT_MAX_SIZE);
+        cache.getTemplate(montage);
+        cache.getTemplate(cybershake);
+        cache.getTemplate(montage);
+        cache.setMaxSize(cache.getSize());
+        cache.getTemplate(test);
+
+        assertEquals(2, cache.numEntries());
+        assertEquals(1, cache.getEvictions());
+        cache.getTemplate(montage);
+        assertEquals(2, cache.getHits());
+        cache.getTemplate(cybershake);
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testDoesNotKeepTemplatesLargerThanTheLimit() {
+        DAGCache cache = new DAGCache(0);
+        assertEquals(25, cache.getTemplate(new File("dags/Montage_25.dag")).numTasks());
+        assertEquals(0, cache.numEntries());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testReloadsModifiedFiles() throws IOException {
+        File file = folder.newFile("test.dag");
+        FileUtils.copyFile(new File("dags/test.dag"), file);
+        DAGCache cache = new DAGCache(DAGCache.DEFAULT_MAX_SIZE);
+        DAGTemplate template = cache.getTemplate(file);
+        assertSame(template, cache.getTemplate(file));
+
+        file.setLastModified(file.lastModified() - 10000);
+        assertNotSame(template, cache.getTemplate(file));
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.numEntries());
+    }
+}
@@ -1,12 +1,25 @@
 package cws.core.dag;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import cws.core.dag.exception.DAGFileNotFoundException;
 
 public class DAGParserTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void testSmall() {
         DAG dag = DAGParser.parseDAG(new File("dags/psmerge_small.dag"));
@@ -33,4 +46,89 @@ public class DAGParserTest {
         assertEquals(2, t.getInputFiles().size());
         assertEquals(2, t.getOutputFiles().size());
     }
+
+    @Test
+    public void testRecordsAreTrimmedAndCaseInsensitive() throws IOException {
+        DAG dag = parse("# comment\n\n  task a x 1e3\r\nFile f 10\n\tTASK b\tx  .5 \nedge a b\n"
+                + "INPUTS b f f\noutputs a f\n");
+        assertEquals(2, dag.numTasks());
+        assertEquals(1000.0, dag.getTaskById("a").getSize(), 0.0);
+        assertEquals(0.5, dag.getTaskById("b").getSize(), 0.0);
+        assertEquals(10, dag.getFileSize("f"));
+        assertEquals("b", dag.getTaskById("a").getChildren().get(0).getId());
+        assertEquals(2, dag.getTaskById("b").getInputFiles().size());
+        assertSame(dag.getTaskById("a").getOutputFiles().get(0), dag.getTaskById("b").getInputFiles().get(0));
+    }
+
+    @Test
+    public void testInvalidRecords() throws IOException {
+        assertError("TASK a x\n", "Invalid TASK record: TASK a x");
+        assertError("FILE f 1 2\n", "Invalid FILE record: FILE f 1 2");
+        assertError("  EDGE a  \n", "Invalid EDGE record: EDGE a");
+        assertError("INPUTS a\n", "Invalid INPUTS record: INPUTS a");
+        assertError("OUTPUTS a\n", "Invalid OUTPUTS record: OUTPUTS a");
+        assertError("JOB a\n", "Unable to read DAG: invalid record: JOB a");
+        assertError("TASK a x 1\nTASK a x 1\n", "Task already exists: a");
+        assertError("FILE f -1\n", "Invalid size for file 'f': -1");
+        assertError("FILE f 1x\n", "For input string: \"1x\"");
+        assertError("EDGE a b\n", "Invalid edge: Parent not found: a");
+    }
+
+    @Test
+    public void testFilesAreCanonical() {
+        DAG dag = DAGParser.parseDAG(new File("dags/Montage_25.dag"));
+        DAGFile fit = dag.getFile("fit.txt");
+        int uses = 0;
+        for (String id : dag.getTasks()) {
+            Task task = dag.getTaskById(id);
+            List<DAGFile> files = new ArrayList<DAGFile>(task.getInputFiles());
+            files.addAll(task.getOutputFiles());
+            for (DAGFile file : files) {
+                assertSame(dag.getFile(file.getName()), file);
+                if (file == fit) {
+                    uses++;
+                }
+            }
+        }
+        // 9 producers and 1 consumer
+        assertEquals(10, uses);
+        for (int i = 0; i < dag.numFiles(); i++) {
+            assertEquals(i, dag.getFileById(i).getId());
+        }
+        assertSame(fit, dag.getFileById(fit.getId()));
+    }
+
+    @Test
+    public void testRedefinedFileKeepsId() {
+        DAG dag = new DAG();
+        DAGFile a = dag.addFile("a", 1);
+        DAGFile b = dag.addFile("b", 2);
+        assertSame(a, dag.addFile("a", 1));
+        DAGFile resized = dag.addFile("a", 3);
+        assertEquals(a.getId(), resized.getId());
+        assertEquals(3, dag.getFileSize("a"));
+        assertSame(resized, dag.getFileById(0));
+        assertSame(b, dag.getFileById(1));
+        assertEquals(-1, new DAGFile("c", 1).getId());
+    }
+
+    @Test(expected = DAGFileNotFoundException.class)
+    public void testUndefinedFile() throws IOException {
+        parse("TASK a x 1\nINPUTS a f\n");
+    }
+
+    private DAG parse(String contents) throws IOException {
+        File file = folder.newFile();
+        FileUtils.writeStringToFile(file, contents, "US-ASCII");
+        return DAGParser.parseDAG(file);
+    }
+
+    private void assertError(String contents, String message) throws IOException {
+        try {
+            parse(contents);
+            fail("Expected error: " + message);
+        } catch (RuntimeException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package cws.core.dag;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Test;
+
+public class DAGTemplateTest {
+
+    @Test
+    public void testInstanceEqualsParsedDAG() {
+        DAG parsed = DAGParser.parseDAX(new File("dags/Montage_25.xml"));
+        DAG dag = new DAGTemplate(parsed).instantiate(1.0);
+        assertArrayEquals(parsed.getTasks(), dag.getTasks());
+        assertArrayEquals(parsed.getFiles(), dag.getFiles());
+        for (String name : parsed.getFiles()) {
+            assertSame(parsed.getFile(name), dag.getFile(name));
+        }
+        for (String id : parsed.getTasks()) {
+            Task p = parsed.getTaskById(id);
+            Task t = dag.getTaskById(id);
+            assertNotSame(p, t);
+            assertEquals(p.getIndex(), t.getIndex());
+            assertEquals(p.getTransformation(), t.getTransformation());
+            assertEquals(p.getSize(), t.getSize(), 0.0);
+            assertEquals(ids(p.getParents()), ids(t.getParents()));
+            assertEquals(ids(p.getChildren()), ids(t.getChildren()));
+            assertEquals(p.getInputFiles(), t.getInputFiles());
+            assertEquals(p.getOutputFiles(), t.getOutputFiles());
+        }
+    }
+
+    @Test
+    public void testInstancesAreIndependent() {
+        DAG parsed = DAGParser.parseDAG(new File("dags/Montage_25.dag"));
+        DAGTemplate template = new DAGTemplate(parsed);
+        DAG first = template.instantiate(1.0);
+        DAG second = template.instantiate(2.0);
+        String id = parsed.getTasks()[0];
+        double size = parsed.getTaskById(id).getSize();
+
+        first.getTaskById(id).scaleSize(3.0);
+        assertEquals(size * 3.0, first.getTaskById(id).getSize(), 0.0);
+        assertEquals(size * 2.0, second.getTaskById(id).getSize(), 0.0);
+        assertEquals(size, template.instantiate(1.0).getTaskById(id).getSize(), 0.0);
+        assertSame(first.getIndexedDAG().getPostorder(), second.getIndexedDAG().getPostorder());
+        assertSame(second.getTaskById(id), second.getIndexedDAG().getTask(second.getTaskById(id).getIndex()));
+
+        Task task = second.getTaskById(id);
+        for (Task child : task.getChildren()) {
+            assertTrue(child.getParents().contains(task));
+            assertSame(child, second.getTaskById(child.getId()));
+        }
+    }
+
+    private static String ids(List<Task> tasks) {
+        StringBuilder b = new StringBuilder();
+        for (Task t : tasks) {
+            b.append(t.getId()).append(' ');
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,132 @@
+package cws.core.dag;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Test;
+
+import cws.core.algorithms.VMType;
+import cws.core.cloudsim.CloudSimWrapper;
+import cws.core.jobs.Job;
+import cws.core.storage.StorageManager;
+
+public class IndexedDAGTest {
+
+    @Test
+    public void testEdgesMatchTaskLists() {
+        DAG dag = DAGParser.parseDAG(new File("dags/CyberShake_30.dag"));
+        IndexedDAG graph = dag.getIndexedDAG();
+        assertEquals(dag.numTasks(), graph.numTasks());
+        for (int i = 0; i < graph.numTasks(); i++) {
+            Task task = graph.getTask(i);
+            assertSame(task, dag.getTask(i));
+            assertEquals(i, task.getIndex());
+            assertRow(task.getChildren(), graph, graph.getChildOffsets(), graph.getChildIndices(), i);
+            assertRow(task.getParents(), graph, graph.getParentOffsets(), graph.getParentIndices(), i);
+        }
+    }
+
+    @Test
+    public void testOrderMatchesGetTasks() {
+        DAG dag = DAGParser.parseDAG(new File("dags/Montage_25.dag"));
+        IndexedDAG graph = dag.getIndexedDAG();
+        String[] ids = dag.getTasks();
+        String[] ordered = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ordered[i] = graph.getTask(graph.getOrder()[i]).getId();
+        }
+        assertArrayEquals(ids, ordered);
+    }
+
+    @Test
+    public void testRebuiltAfterChanges() {
+        DAG dag = new DAG();
+        dag.addTask(new Task("a", "test::a", 10, VMType.DEFAULT_VM_TYPE));
+        dag.addTask(new Task("b", "test::b", 5, VMType.DEFAULT_VM_TYPE));
+        IndexedDAG graph = dag.getIndexedDAG();
+        assertSame(graph, dag.getIndexedDAG());
+        assertEquals(0, graph.getChildIndices().length);
+
+        dag.addEdge("a", "b");
+        IndexedDAG rebuilt = dag.getIndexedDAG();
+        assertNotSame(graph, rebuilt);
+        assertArrayEquals(new int[] { 1 }, rebuilt.getChildIndices());
+        assertArrayEquals(new int[] { 0 }, rebuilt.getParentIndices());
+
+        dag.getTaskById("b").scaleSize(2.0);
+        assertArrayEquals(new double[] { 10, 10 }, rebuilt.getSizes(), 0.0);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testRejectsTasksOfOtherDAGs() {
+        DAG dag = new DAG();
+        dag.addTask(new Task("a", "test::a", 10, VMType.DEFAULT_VM_TYPE));
+        dag.getTaskById("a").getChildren().add(new Task("b", "test::b", 5, VMType.DEFAULT_VM_TYPE));
+        dag.getIndexedDAG();
+    }
+
+    @Test
+    public void testTransferEstimationsAreMemoizedPerKey() {
+        CloudSimWrapper cloudsim = new CloudSimWrapper();
+        cloudsim.init();
+        CountingStorageManager first = new CountingStorageManager(cloudsim, "key");
+        CountingStorageManager second = new CountingStorageManager(cloudsim, "key");
+        CountingStorageManager unkeyed = new CountingStorageManager(cloudsim, null);
+        DAGTemplate template = new DAGTemplate(DAGParser.parseDAG(new File("dags/Montage_25.dag")));
+        DAG dag = template.instantiate(1.0);
+
+        double[] estimations = dag.getIndexedDAG().getTransferTimeEstimations(first);
+        assertSame(estimations, dag.getIndexedDAG().getTransferTimeEstimations(second));
+        assertSame(estimations, template.instantiate(2.0).getIndexedDAG().getTransferTimeEstimations(second));
+        assertEquals(25, first.calls + second.calls);
+
+        dag.getIndexedDAG().getTransferTimeEstimations(unkeyed);
+        dag.getIndexedDAG().getTransferTimeEstimations(unkeyed);
+        assertEquals(50, unkeyed.calls);
+
+        Task task = dag.getTask(3);
+        task.scaleSize(2.0);
+        assertEquals(task.getPredictedRuntime(first), dag.getIndexedDAG().getPredictedRuntimes(second)[3], 0.0);
+    }
+
+    private static class CountingStorageManager extends StorageManager {
+        private final Object key;
+        private int calls;
+
+        CountingStorageManager(CloudSimWrapper cloudsim, Object key) {
+            super(cloudsim);
+            this.key = key;
+        }
+
+        @Override
+        public double getTransferTimeEstimation(Task task) {
+            calls++;
+            return task.getInputFiles().size();
+        }
+
+        @Override
+        public Object getTransferEstimationKey() {
+            return key;
+        }
+
+        @Override
+        protected void onBeforeTaskStart(Job job) {
+        }
+
+        @Override
+        protected void onAfterTaskCompleted(Job job) {
+        }
+    }
+
+    private static void assertRow(List<Task> expected, IndexedDAG graph, int[] offsets, int[] indices, int i) {
+        assertEquals(expected.size(), offsets[i + 1] - offsets[i]);
+        for (int j = 0; j < expected.size(); j++) {
+            assertSame(expected.get(j), graph.getTask(indices[offsets[i] + j]));
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import cws.core.algorithms.VMType;
 import cws.core.dag.DAG;
 import cws.core.dag.DAGParser;
 import cws.core.dag.Task;
@@ -30,6 +31,45 @@ public class TopologicalOrderTest {
         checkTopologicalSort(dag);
     }
 
+    @Test
+    public void deepChain() {
+        DAG dag = new DAG();
+        int n = 200000;
+        for (int i = 0; i < n; i++) {
+            dag.addTask(new Task("t" + i, "test::t", 1, VMType.DEFAULT_VM_TYPE));
+            if (i > 0) {
+                dag.addEdge("t" + (i - 1), "t" + i);
+            }
+        }
+        TopologicalOrder order = new TopologicalOrder(dag);
+        int i = 0;
+        for (Task t : order) {
+            assertEquals("t" + i, t.getId());
+            assertEquals(i, order.getLevels()[t.getIndex()]);
+            i++;
+        }
+        assertEquals(n, i);
+        assertEquals(n, order.getNumLevels());
+    }
+
+    @Test
+    public void levels() {
+        DAG dag = DAGParser.parseDAG(new File("dags/CyberShake_30.dag"));
+        TopologicalOrder order = new TopologicalOrder(dag);
+        int[] levels = order.getLevels();
+        int max = 0;
+        for (String id : dag.getTasks()) {
+            Task t = dag.getTaskById(id);
+            int level = 0;
+            for (Task p : t.getParents()) {
+                level = Math.max(level, levels[p.getIndex()] + 1);
+            }
+            assertEquals(level, levels[t.getIndex()]);
+            max = Math.max(max, level);
+        }
+        assertEquals(max + 1, order.getNumLevels());
+    }
+
     void checkTopologicalSort(DAG dag) {
         // Compute the topological order
         TopologicalOrder order = new TopologicalOrder(dag);
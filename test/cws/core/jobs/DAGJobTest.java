@@ -79,4 +79,66 @@ public class DAGJobTest {
         assertTrue(dj.isFinished());
     }
 
+    @Test
+    public void testFanInIsReleasedByLastParent() {
+        DAG dag = new DAG();
+        dag.addTask(new Task("merge", "test::merge", 10, VMType.DEFAULT_VM_TYPE));
+        for (int i = 0; i < 100; i++) {
+            dag.addTask(new Task("p" + i, "test::p", 5, VMType.DEFAULT_VM_TYPE));
+            dag.addEdge("p" + i, "merge");
+        }
+
+        DAGJob dj = new DAGJob(dag, 0);
+        assertEquals(100, dj.readyTasks());
+        for (int i = 0; i < 100; i++) {
+            Task p = dj.nextReadyTask();
+            assertEquals(99 - i, dj.readyTasks());
+            dj.completeTask(p);
+            dj.completeTask(p);
+        }
+        assertEquals(1, dj.readyTasks());
+        Task merge = dj.nextReadyTask();
+        assertEquals("merge", merge.getId());
+        assertTrue(dj.isReleased(merge));
+        assertFalse(dj.isComplete(merge));
+        assertFalse(dj.isComplete(diamondDAG().getTaskById("a")));
+        dj.completeTask(merge);
+        assertTrue(dj.isFinished());
+    }
+
+    @Test
+    public void testSetDAGStartsNewDAGOver() {
+        DAGJob dj = new DAGJob(diamondDAG(), 0);
+        dj.completeTask(dj.nextReadyTask());
+        assertEquals(2, dj.readyTasks());
+
+        DAG chain = new DAG();
+        chain.addTask(new Task("x", "test::x", 10, VMType.DEFAULT_VM_TYPE));
+        chain.addTask(new Task("y", "test::y", 10, VMType.DEFAULT_VM_TYPE));
+        chain.addEdge("x", "y");
+        dj.setDAG(chain);
+        assertEquals(1, dj.readyTasks());
+        Task x = dj.nextReadyTask();
+        assertEquals("x", x.getId());
+        assertFalse(dj.isComplete(x));
+        dj.completeTask(x);
+        Task y = dj.nextReadyTask();
+        assertEquals("y", y.getId());
+        dj.completeTask(y);
+        assertTrue(dj.isFinished());
+
+        // a DAG with as many tasks does not inherit the old state either
+        DAG diamond = diamondDAG();
+        dj.setDAG(diamond);
+        assertEquals(1, dj.readyTasks());
+        assertFalse(dj.isFinished());
+        assertFalse(dj.isReleased(diamond.getTaskById("d")));
+        assertEquals("a", dj.nextReadyTask().getId());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testCompletingForeignTaskFails() {
+        DAGJob dj = new DAGJob(diamondDAG(), 0);
+        dj.completeTask(diamondDAG().getTaskById("a"));
+    }
 }
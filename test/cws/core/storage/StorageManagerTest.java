@@ -6,7 +6,6 @@ import java.util.Random;
 
 import junit.framework.Assert;
 
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Matchers;
@@ -50,15 +49,15 @@ public abstract class StorageManagerTest {
 
     @Test
     public void testEmptySimulation() {
-        CloudSim.startSimulation();
+        cloudsim.startSimulation();
     }
 
     @Test
     public void testBeforeTaskStartOnJobWithNoFiles() {
         Mockito.when(task.getInputFiles()).thenReturn(new ArrayList<DAGFile>());
         skipEvent(100, WorkflowEvent.STORAGE_ALL_BEFORE_TRANSFERS_COMPLETED, cloudsim);
-        CloudSim.send(-1, storageManager.getId(), random.nextDouble(), WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
-        CloudSim.startSimulation();
+        cloudsim.send(-1, storageManager.getId(), random.nextDouble(), WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
+        cloudsim.startSimulation();
 
         Mockito.verify(cloudsim).send(Matchers.anyInt(), Matchers.eq(100), Matchers.anyDouble(),
                 Matchers.eq(WorkflowEvent.STORAGE_ALL_BEFORE_TRANSFERS_COMPLETED), Matchers.any());
@@ -68,8 +67,8 @@ public abstract class StorageManagerTest {
     public void testAfterTaskCompletedOnJobWithNoFiles() {
         Mockito.when(task.getOutputFiles()).thenReturn(new ArrayList<DAGFile>());
         skipEvent(100, WorkflowEvent.STORAGE_ALL_AFTER_TRANSFERS_COMPLETED, cloudsim);
-        CloudSim.send(-1, storageManager.getId(), random.nextDouble(), WorkflowEvent.STORAGE_AFTER_TASK_COMPLETED, job);
-        CloudSim.startSimulation();
+        cloudsim.send(-1, storageManager.getId(), random.nextDouble(), WorkflowEvent.STORAGE_AFTER_TASK_COMPLETED, job);
+        cloudsim.startSimulation();
 
         Mockito.verify(cloudsim).send(Matchers.anyInt(), Matchers.eq(100), Matchers.anyDouble(),
                 Matchers.eq(WorkflowEvent.STORAGE_ALL_AFTER_TRANSFERS_COMPLETED), Matchers.any());
@@ -82,8 +81,8 @@ public abstract class StorageManagerTest {
         files.add(new DAGFile("def.txt", 327879));
         Mockito.when(task.getInputFiles()).thenReturn(files);
         skipEvent(100, WorkflowEvent.STORAGE_ALL_BEFORE_TRANSFERS_COMPLETED, cloudsim);
-        CloudSim.send(-1, storageManager.getId(), random.nextDouble(), WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
-        CloudSim.startSimulation();
+        cloudsim.send(-1, storageManager.getId(), random.nextDouble(), WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
+        cloudsim.startSimulation();
 
         Mockito.verify(cloudsim).send(Matchers.anyInt(), Matchers.eq(100), Matchers.anyDouble(),
                 Matchers.eq(WorkflowEvent.STORAGE_ALL_BEFORE_TRANSFERS_COMPLETED), Matchers.any());
@@ -96,16 +95,16 @@ public abstract class StorageManagerTest {
         files.add(new DAGFile("def.txt", 327879));
         Mockito.when(task.getOutputFiles()).thenReturn(files);
         skipEvent(100, WorkflowEvent.STORAGE_ALL_AFTER_TRANSFERS_COMPLETED, cloudsim);
-        CloudSim.send(-1, storageManager.getId(), random.nextDouble(), WorkflowEvent.STORAGE_AFTER_TASK_COMPLETED, job);
-        CloudSim.startSimulation();
+        cloudsim.send(-1, storageManager.getId(), random.nextDouble(), WorkflowEvent.STORAGE_AFTER_TASK_COMPLETED, job);
+        cloudsim.startSimulation();
         Mockito.verify(cloudsim).send(Matchers.anyInt(), Matchers.eq(100), Matchers.anyDouble(),
                 Matchers.eq(WorkflowEvent.STORAGE_ALL_AFTER_TRANSFERS_COMPLETED), Matchers.any());
     }
 
     @Test(expected = UnknownWorkflowEventException.class)
     public void testUnknownMsg() {
-        CloudSim.send(storageManager.getId(), storageManager.getId(), random.nextDouble(), 21434243, null);
-        CloudSim.startSimulation();
+        cloudsim.send(storageManager.getId(), storageManager.getId(), random.nextDouble(), 21434243, null);
+        cloudsim.startSimulation();
     }
 
     @Test
@@ -133,8 +132,8 @@ public abstract class StorageManagerTest {
         files.add(new DAGFile("def.txt", 444));
         Mockito.when(task.getOutputFiles()).thenReturn(files);
         skipEvent(100, WorkflowEvent.STORAGE_ALL_AFTER_TRANSFERS_COMPLETED, cloudsim);
-        CloudSim.send(-1, storageManager.getId(), random.nextDouble(), WorkflowEvent.STORAGE_AFTER_TASK_COMPLETED, job);
-        CloudSim.startSimulation();
+        cloudsim.send(-1, storageManager.getId(), random.nextDouble(), WorkflowEvent.STORAGE_AFTER_TASK_COMPLETED, job);
+        cloudsim.startSimulation();
         Assert.assertEquals(777, storageManager.getStorageManagerStatistics().getTotalBytesToWrite());
         Assert.assertEquals(2, storageManager.getStorageManagerStatistics().getTotalFilesToWrite());
 
@@ -151,8 +150,8 @@ public abstract class StorageManagerTest {
         files.add(new DAGFile("def.txt", 333));
         Mockito.when(task.getInputFiles()).thenReturn(files);
         skipEvent(100, WorkflowEvent.STORAGE_ALL_BEFORE_TRANSFERS_COMPLETED, cloudsim);
-        CloudSim.send(-1, storageManager.getId(), random.nextDouble(), WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
-        CloudSim.startSimulation();
+        cloudsim.send(-1, storageManager.getId(), random.nextDouble(), WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
+        cloudsim.startSimulation();
         Assert.assertEquals(555, storageManager.getStorageManagerStatistics().getTotalBytesToRead());
         Assert.assertEquals(555, storageManager.getStorageManagerStatistics().getActualBytesRead());
         Assert.assertEquals(2, storageManager.getStorageManagerStatistics().getTotalFilesToRead());
@@ -0,0 +1,63 @@
+package cws.core.storage.global;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import cws.core.WorkflowEvent;
+import cws.core.cloudsim.CWSSimEntity;
+import cws.core.dag.DAGFile;
+
+/**
+ * Runs all {@link GlobalStorageManagerTest} tests with analytic transfers, i.e. they must give the same times as the
+ * chunked model.
+ */
+public class GlobalStorageManagerAnalyticTest extends GlobalStorageManagerTest {
+
+    @Before
+    public void setUpAnalyticTransfers() {
+        params.setAnalyticTransfers(true);
+    }
+
+    @Test
+    public void testAnalyticReadNeedsNoChunks() {
+        params.setChunkTransferTime(0.001);
+        List<DAGFile> files = new ArrayList<DAGFile>();
+        long sz = 1000000;
+        files.add(new DAGFile("abc.txt", sz));
+        Mockito.when(task.getInputFiles()).thenReturn(files);
+        skipEvent(100, WorkflowEvent.STORAGE_ALL_BEFORE_TRANSFERS_COMPLETED, cloudsim);
+        cloudsim.send(-1, storageManager.getId(), 0, WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
+        double time = cloudsim.startSimulation();
+
+        Mockito.verify(cloudsim, Mockito.times(1)).send(Matchers.anyInt(), Matchers.anyInt(), Matchers.anyDouble(),
+                Matchers.eq(WorkflowEvent.GLOBAL_STORAGE_READ_PROGRESS), Matchers.any());
+        Mockito.verify(cloudsim, Mockito.times(1)).sendToMyself(Matchers.any(CWSSimEntity.class),
+                Matchers.anyDouble(), Matchers.eq(WorkflowEvent.GLOBAL_STORAGE_READ_FINISHED), Matchers.any());
+        Assert.assertEquals(sz / params.getReadSpeed() + params.getLatency(), time, 0.000001);
+    }
+
+    @Test
+    public void testSpeedChangeWithinToleranceIsIgnored() {
+        params.setSpeedChangeTolerance(1.0);
+        long sz = 324324;
+        params.setWriteSpeed(9713);
+        List<DAGFile> files = new ArrayList<DAGFile>();
+        files.add(new DAGFile("abc.txt", sz));
+        files.add(new DAGFile("abc2.txt", sz));
+        Mockito.when(task.getOutputFiles()).thenReturn(files);
+        skipEvent(100, WorkflowEvent.STORAGE_ALL_AFTER_TRANSFERS_COMPLETED, cloudsim);
+        cloudsim.send(-1, storageManager.getId(), 0, WorkflowEvent.STORAGE_AFTER_TASK_COMPLETED, job);
+        double time = cloudsim.startSimulation();
+
+        // both writes keep the congested speed, so they finish together
+        Mockito.verify(cloudsim, Mockito.times(2)).sendToMyself(Matchers.any(CWSSimEntity.class),
+                Matchers.anyDouble(), Matchers.eq(WorkflowEvent.GLOBAL_STORAGE_WRITE_FINISHED), Matchers.any());
+        Assert.assertEquals((sz * 2) / params.getWriteSpeed() + params.getLatency(), time, 0.000001);
+    }
+}
@@ -2,7 +2,6 @@ package cws.core.storage.global;
 
 import java.util.ArrayList;
 
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -64,8 +63,8 @@ public class GlobalStorageManagerCacheTest {
 
         Mockito.when(task.getInputFiles()).thenReturn(files);
         StorageManagerTest.skipEvent(100, WorkflowEvent.STORAGE_ALL_BEFORE_TRANSFERS_COMPLETED, cloudsim);
-        CloudSim.send(-1, storageManager.getId(), 0, WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
-        CloudSim.startSimulation();
+        cloudsim.send(-1, storageManager.getId(), 0, WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
+        cloudsim.startSimulation();
 
         Mockito.verify(cacheManager).getFileFromCache(df, job); // tried to get ...
         Mockito.verify(cacheManager).putFileToCache(df, job); // and then put
@@ -81,8 +80,8 @@ public class GlobalStorageManagerCacheTest {
 
         Mockito.when(task.getInputFiles()).thenReturn(files);
         StorageManagerTest.skipEvent(100, WorkflowEvent.STORAGE_ALL_BEFORE_TRANSFERS_COMPLETED, cloudsim);
-        CloudSim.send(-1, storageManager.getId(), 0, WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
-        Assert.assertEquals(0.0, CloudSim.startSimulation(), 0.0001);
+        cloudsim.send(-1, storageManager.getId(), 0, WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
+        Assert.assertEquals(0.0, cloudsim.startSimulation(), 0.0001);
 
         Mockito.verify(cacheManager).getFileFromCache(df, job);
         Mockito.verifyNoMoreInteractions(cacheManager);
@@ -97,8 +96,8 @@ public class GlobalStorageManagerCacheTest {
 
         Mockito.when(task.getInputFiles()).thenReturn(files);
         StorageManagerTest.skipEvent(100, WorkflowEvent.STORAGE_ALL_BEFORE_TRANSFERS_COMPLETED, cloudsim);
-        CloudSim.send(-1, storageManager.getId(), 0, WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
-        CloudSim.startSimulation();
+        cloudsim.send(-1, storageManager.getId(), 0, WorkflowEvent.STORAGE_BEFORE_TASK_START, job);
+        cloudsim.startSimulation();
 
         Assert.assertEquals(2442, storageManager.getStorageManagerStatistics().getTotalBytesToRead());
         Assert.assertEquals(0, storageManager.getStorageManagerStatistics().getActualBytesRead());
@@ -110,8 +109,8 @@ public class GlobalStorageManagerCacheTest {
 
         Mockito.when(task.getOutputFiles()).thenReturn(files);
         StorageManagerTest.skipEvent(100, WorkflowEvent.STORAGE_ALL_AFTER_TRANSFERS_COMPLETED, cloudsim);
-        CloudSim.send(-1, storageManager.getId(), 0, WorkflowEvent.STORAGE_AFTER_TASK_COMPLETED, job);
-        CloudSim.startSimulation();
+        cloudsim.send(-1, storageManager.getId(), 0, WorkflowEvent.STORAGE_AFTER_TASK_COMPLETED, job);
+        cloudsim.startSimulation();
 
         Mockito.verify(cacheManager).putFileToCache(df, job); // only saves to cache
         Mockito.verifyNoMoreInteractions(cacheManager);
@@ -18,21 +18,21 @@ public class SimEntityStub extends CWSSimEntity {
     }
 
     /**
-     * @see org.cloudbus.cloudsim.core.SimEntity#startEntity()
+     * @see CWSSimEntity#startEntity()
      */
     @Override
     public void startEntity() {
     }
 
     /**
-     * @see org.cloudbus.cloudsim.core.SimEntity#processEvent(org.cloudbus.cloudsim.core.SimEvent)
+     * @see CWSSimEntity#processEvent(CWSSimEvent)
      */
     @Override
     public void processEvent(CWSSimEvent ev) {
     }
 
     /**
-     * @see org.cloudbus.cloudsim.core.SimEntity#shutdownEntity()
+     * @see CWSSimEntity#shutdownEntity()
      */
     @Override
     public void shutdownEntity() {
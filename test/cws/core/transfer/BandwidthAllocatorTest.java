@@ -0,0 +1,75 @@
+package cws.core.transfer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cws.core.cloudsim.CloudSimWrapper;
+
+public class BandwidthAllocatorTest {
+    private CloudSimWrapper cloudsim;
+
+    @Before
+    public void setUp() {
+        cloudsim = new CloudSimWrapper();
+    }
+
+    @Test
+    public void testMaxMinFairness() {
+        Port a = new Port(1000, cloudsim);
+        Port slow = new Port(100, cloudsim);
+        Port fast = new Port(1000, cloudsim);
+        Link l = new Link(1000, 1.0, cloudsim);
+        Transfer toSlow = new Transfer(a, slow, l, 1000, -1, cloudsim);
+        Transfer toFast = new Transfer(a, fast, l, 1000, -1, cloudsim);
+
+        BandwidthAllocator allocator = new BandwidthAllocator();
+        allocator.add(toSlow);
+        allocator.add(toFast);
+        allocator.allocate();
+        assertEquals(100.0, allocator.getAllocation(toSlow), 0.000001);
+        assertEquals(900.0, allocator.getAllocation(toFast), 0.000001);
+
+        allocator.remove(toSlow);
+        allocator.allocate();
+        assertEquals(1000.0, allocator.getAllocation(toFast), 0.000001);
+    }
+
+    @Test
+    public void testIncrementalAllocationMatchesFromScratch() {
+        Random rng = new Random(7);
+        Port[] ports = new Port[10];
+        for (int i = 0; i < ports.length; i++) {
+            ports[i] = new Port(100 + rng.nextInt(1000), cloudsim);
+        }
+        Link[] links = new Link[3];
+        for (int i = 0; i < links.length; i++) {
+            links[i] = new Link(500 + rng.nextInt(1000), 1.0, cloudsim);
+        }
+
+        BandwidthAllocator allocator = new BandwidthAllocator();
+        List<Transfer> active = new ArrayList<Transfer>();
+        for (int step = 0; step < 500; step++) {
+            if (active.isEmpty() || rng.nextInt(3) > 0) {
+                Transfer t = new Transfer(ports[rng.nextInt(ports.length)], ports[rng.nextInt(ports.length)],
+                        links[rng.nextInt(links.length)], 1000, -1, cloudsim);
+                active.add(t);
+                allocator.add(t);
+            } else {
+                allocator.remove(active.remove(rng.nextInt(active.size())));
+            }
+            allocator.allocate();
+
+            Transfer[] transfers = active.toArray(new Transfer[0]);
+            double[] expected = TransferManager.allocateBandwidth(transfers);
+            for (int i = 0; i < transfers.length; i++) {
+                assertEquals(expected[i], allocator.getAllocation(transfers[i]), 0.000001);
+            }
+        }
+    }
+}
@@ -68,12 +68,12 @@ public class TransferManagerTest {
 
         TransferDriver td = new TransferDriver(cloudsim);
 
-        Port a = new Port(1000);
+        Port a = new Port(1000, cloudsim);
         Port[] b = new Port[4];
         for (int i = 0; i < 4; i++) {
-            b[i] = new Port(1000);
+            b[i] = new Port(1000, cloudsim);
         }
-        Link l = new Link(1000, 1000.0);
+        Link l = new Link(1000, 1000.0, cloudsim);
         List<Transfer> transfers = new ArrayList<Transfer>();
 
         for (int i = 0; i < 24; i++) {